@@ -0,0 +1,76 @@
+package com.metallicbluedev.benchmarks;
+
+import com.metallicbluedev.utils.*;
+import java.awt.image.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mesure des allocations du redimensionnement répété à la même taille.
+ * Compare une nouvelle image à chaque appel avec la réutilisation d'une destination existante ou d'un {@link BufferedImagePool}.
+ * A lancer avec le profileur <code>-prof gc</code> : la valeur <code>gc.alloc.rate.norm</code> donne les octets alloués par appel.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class AllocationBenchmark {
+
+    @Param({"INT_ARGB", "3BYTE_BGR"})
+    private String type;
+
+    @Param({"BILINEAR", "LANCZOS"})
+    private ResampleFilter filter;
+
+    private BufferedImage image;
+
+    private BufferedImage destination;
+
+    private BufferedImagePool pool;
+
+    @Setup
+    public void setUp() {
+        image = BenchmarkImages.create(1024, 768, BenchmarkImages.getType(type), true);
+        destination = new BufferedImage(320, 240, BufferedImage.TYPE_INT_ARGB);
+        pool = new BufferedImagePool();
+    }
+
+    /**
+     * Nouvelle image à chaque appel.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage scaleNewImage() {
+        return ImageHelper.scale(image, 320, 240, filter);
+    }
+
+    /**
+     * Réutilisation de la même image de destination.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage scaleIntoDestination() {
+        return ImageHelper.scale(image, destination, filter);
+    }
+
+    /**
+     * Destination empruntée puis rendue au réservoir.
+     *
+     * @return
+     */
+    @Benchmark
+    public int scaleIntoPooledImage() {
+        BufferedImage pooled = pool.acquire(320, 240, BufferedImage.TYPE_INT_ARGB);
+        ImageHelper.scale(image, pooled, filter);
+        int rgb = pooled.getRGB(0, 0);
+        pool.release(pooled);
+        return rgb;
+    }
+}
@@ -0,0 +1,65 @@
+package com.metallicbluedev.benchmarks;
+
+import com.metallicbluedev.utils.*;
+import java.awt.image.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mesure de la détection de la transparence.
+ * Les images ont un canal alpha mais tous leurs pixels sont opaques : l'analyse parcourt toute l'image (pire cas).
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class AlphaScanBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"INT_ARGB", "INT_ARGB_PRE", "4BYTE_ABGR"})
+    private String type;
+
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        image = BenchmarkImages.create(size, size, BenchmarkImages.getType(type), false);
+    }
+
+    /**
+     * Modèle de couleur seul.
+     *
+     * @return
+     */
+    @Benchmark
+    public boolean hasAlpha() {
+        return ImageHelper.hasAlpha(image);
+    }
+
+    /**
+     * Analyse de tous les pixels.
+     *
+     * @return
+     */
+    @Benchmark
+    public boolean hasAlphaScanPixels() {
+        return ImageHelper.hasAlpha(image, true);
+    }
+
+    /**
+     * Test d'un pixel.
+     *
+     * @return
+     */
+    @Benchmark
+    public boolean hasAlphaAt() {
+        return ImageHelper.hasAlphaAt(image, size / 2, size / 2, 0);
+    }
+}
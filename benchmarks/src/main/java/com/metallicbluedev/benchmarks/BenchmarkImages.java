@@ -0,0 +1,59 @@
+package com.metallicbluedev.benchmarks;
+
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * Images de test des mesures.
+ * Le contenu est aléatoire mais reproductible (graine fixe).
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+final class BenchmarkImages {
+
+    private BenchmarkImages() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Retourne le type d'image correspondant au nom de la constante de {@link BufferedImage} (sans le préfixe TYPE_).
+     *
+     * @param name
+     * @return
+     */
+    static int getType(String name) {
+        return switch (name) {
+            case "INT_ARGB" -> BufferedImage.TYPE_INT_ARGB;
+            case "INT_RGB" -> BufferedImage.TYPE_INT_RGB;
+            case "INT_ARGB_PRE" -> BufferedImage.TYPE_INT_ARGB_PRE;
+            case "3BYTE_BGR" -> BufferedImage.TYPE_3BYTE_BGR;
+            case "4BYTE_ABGR" -> BufferedImage.TYPE_4BYTE_ABGR;
+            default -> throw new IllegalArgumentException("Unknown image type: " + name);
+        };
+    }
+
+    /**
+     * Nouvelle image au contenu aléatoire.
+     *
+     * @param width
+     * @param height
+     * @param type
+     * @param translucent Pixels partiellement transparents, sinon tous les pixels sont opaques.
+     * @return
+     */
+    static BufferedImage create(int width, int height, int type, boolean translucent) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(42);
+        int[] row = new int[width];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = translucent ? random.nextInt() : random.nextInt() | 0xff000000;
+            }
+
+            image.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return image;
+    }
+}
@@ -0,0 +1,67 @@
+package com.metallicbluedev.benchmarks;
+
+import com.metallicbluedev.utils.*;
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mesure des conversions et transformations qui créent une image compatible avec l'écran.
+ * Ces mesures nécessitent un affichage : elles échouent en mode headless
+ * (les exclure avec <code>-e DisplayImageBenchmark</code>).
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisplayImageBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"INT_ARGB", "INT_RGB", "3BYTE_BGR"})
+    private String type;
+
+    private BufferedImage image;
+
+    private Image toolkitImage;
+
+    private AffineTransform rotation;
+
+    @Setup
+    public void setUp() {
+        image = BenchmarkImages.create(size, size * 3 / 4, BenchmarkImages.getType(type), true);
+
+        int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        toolkitImage = Toolkit.getDefaultToolkit().createImage(new MemoryImageSource(image.getWidth(), image.getHeight(), pixels, 0, image.getWidth()));
+
+        rotation = AffineTransform.getRotateInstance(Math.toRadians(30), image.getWidth() / 2d, image.getHeight() / 2d);
+    }
+
+    /**
+     * Rotation quelconque dans une nouvelle image.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage transform() {
+        return ImageHelper.transform(image, rotation);
+    }
+
+    /**
+     * Conversion d'une image du toolkit.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage toBufferedImageFromToolkit() {
+        return ImageHelper.toBufferedImage(toolkitImage);
+    }
+}
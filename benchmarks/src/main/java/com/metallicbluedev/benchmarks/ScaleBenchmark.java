@@ -0,0 +1,69 @@
+package com.metallicbluedev.benchmarks;
+
+import com.metallicbluedev.utils.*;
+import java.awt.image.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mesure du redimensionnement ({@link ImageHelper#scale(java.awt.Image, int, int, ScaleMode)}
+ * et {@link ImageHelper#scaleMax(java.awt.Image, int, int, ScaleMode)}) pour chaque mode, type et taille d'image.
+ * Sert de référence pour le choix du mode par défaut ({@link ScaleMode#DIRECT}).
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ScaleBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"INT_ARGB", "INT_RGB", "3BYTE_BGR"})
+    private String type;
+
+    @Param({"DIRECT", "PROGRESSIVE", "AREA_AVERAGING"})
+    private ScaleMode mode;
+
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        image = BenchmarkImages.create(size, size * 3 / 4, BenchmarkImages.getType(type), true);
+    }
+
+    /**
+     * Réduction de moitié.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage scaleHalf() {
+        return ImageHelper.scale(image, image.getWidth() / 2, image.getHeight() / 2, mode);
+    }
+
+    /**
+     * Agrandissement d'un tiers.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage scaleUp() {
+        return ImageHelper.scale(image, image.getWidth() * 4 / 3, image.getHeight() * 4 / 3, mode);
+    }
+
+    /**
+     * Miniature (forte réduction).
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage scaleMaxThumbnail() {
+        return ImageHelper.scaleMax(image, 128, 128, mode);
+    }
+}
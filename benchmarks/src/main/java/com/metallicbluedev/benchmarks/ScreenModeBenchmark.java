@@ -0,0 +1,106 @@
+package com.metallicbluedev.benchmarks;
+
+import com.metallicbluedev.core.*;
+import java.awt.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mesure de la recherche des modes d'affichage et du calcul des limites de l'écran.
+ * Les modes de l'écran sont simulés : la mesure ne dépend pas de la carte graphique et fonctionne en mode headless.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ScreenModeBenchmark {
+
+    private static final int[][] RESOLUTIONS = {
+        {640, 480}, {800, 600}, {1024, 768}, {1280, 720}, {1280, 1024},
+        {1366, 768}, {1600, 900}, {1920, 1080}, {2560, 1440}, {3840, 2160}
+    };
+
+    private static final int[] BIT_DEPTHS = {16, 24, 32};
+
+    private static final int[] REFRESH_RATES = {60, 75, 120, 144};
+
+    private DisplayMode[] deviceModes;
+
+    private DisplayMode[] wantedModes;
+
+    private DisplayMode first;
+
+    private DisplayMode second;
+
+    private ScreenManager screen;
+
+    @Setup
+    public void setUp() {
+        deviceModes = new DisplayMode[RESOLUTIONS.length * BIT_DEPTHS.length * REFRESH_RATES.length];
+        int index = 0;
+
+        for (int[] resolution : RESOLUTIONS) {
+            for (int bitDepth : BIT_DEPTHS) {
+                for (int refreshRate : REFRESH_RATES) {
+                    deviceModes[index++] = new DisplayMode(resolution[0], resolution[1], bitDepth, refreshRate);
+                }
+            }
+        }
+
+        // Le mode compatible est en fin de liste : toute la liste est parcourue
+        wantedModes = new DisplayMode[]{
+            new DisplayMode(1920, 1200, 32, 60),
+            new DisplayMode(1680, 1050, 32, 60),
+            new DisplayMode(3840, 2160, 32, DisplayMode.REFRESH_RATE_UNKNOWN)
+        };
+
+        first = new DisplayMode(1920, 1080, 32, 60);
+        second = new DisplayMode(1920, 1080, DisplayMode.BIT_DEPTH_MULTI, 60);
+        screen = new SimulatedScreenManager(deviceModes, new DisplayMode(1280, 720, 32, 60));
+    }
+
+    @Benchmark
+    public boolean displayModesMatch() {
+        return ScreenManager.displayModesMatch(first, second);
+    }
+
+    @Benchmark
+    public DisplayMode findFirstCompatibleMode() {
+        return screen.findFirstCompatibleMode(wantedModes);
+    }
+
+    @Benchmark
+    public Rectangle getMaximumBounds() {
+        return ScreenManager.getMaximumBounds();
+    }
+
+    /**
+     * Ecran dont les modes d'affichage sont fixés.
+     */
+    private static final class SimulatedScreenManager extends ScreenManager {
+
+        private final DisplayMode[] modes;
+
+        private final DisplayMode currentMode;
+
+        private SimulatedScreenManager(DisplayMode[] modes, DisplayMode currentMode) {
+            this.modes = modes;
+            this.currentMode = currentMode;
+        }
+
+        @Override
+        public DisplayMode[] getCompatibleDisplayModes() {
+            return modes;
+        }
+
+        @Override
+        public DisplayMode getCurrentDisplayMode() {
+            return currentMode;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.metallicbluedev.benchmarks;
+
+import com.metallicbluedev.utils.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mesure des transformations d'image de {@link ImageHelper}.
+ * Les transformations qui créent une image compatible avec l'écran sont mesurées par {@link DisplayImageBenchmark}.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TransformBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"INT_ARGB", "INT_RGB", "3BYTE_BGR"})
+    private String type;
+
+    private BufferedImage image;
+
+    private AffineTransform rotation;
+
+    private BufferedImage destination;
+
+    @Setup
+    public void setUp() {
+        image = BenchmarkImages.create(size, size * 3 / 4, BenchmarkImages.getType(type), true);
+        destination = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        rotation = AffineTransform.getRotateInstance(Math.toRadians(30), image.getWidth() / 2d, image.getHeight() / 2d);
+    }
+
+    /**
+     * Rotation quelconque dans une image existante.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage transformIntoDestination() {
+        return ImageHelper.transform(image, rotation, destination);
+    }
+
+    /**
+     * Rotation par quart de tour.
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage rotateQuarter() {
+        return ImageHelper.rotate(image, 1);
+    }
+
+    /**
+     * Miroir horizontal (copie).
+     *
+     * @return
+     */
+    @Benchmark
+    public BufferedImage mirrorCopy() {
+        return ImageHelper.getMirrorImage(image);
+    }
+}
@@ -0,0 +1,258 @@
+package com.metallicbluedev.utils;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Traitements par pixel de {@link PixelKernels} avec l'API Vector (module <code>jdk.incubator.vector</code>).
+ * Chaque traitement ne couvre que des vecteurs complets et retourne le nombre de pixels traités :
+ * les pixels restants sont traités par la boucle scalaire de {@link PixelKernels}.
+ * <p>
+ * Cette classe est compilée à part (dossier <code>src-vector</code>, voir <code>build.xml</code>)
+ * et n'est chargée, par son nom, que si le module est présent (voir {@link PixelKernels}).
+ *
+ * @version 1.02.00
+ * @author Sebastien Villemain
+ */
+final class VectorPixelKernels implements VectorKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    VectorPixelKernels() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Vérifie que les vecteurs contiennent plusieurs pixels.
+     *
+     * @return
+     */
+    @Override
+    public boolean isSupported() {
+        return SPECIES.length() > 1;
+    }
+
+    /**
+     * Division par 255 arrondie, pour des valeurs de 0 à 255 * 255.
+     *
+     * @param value
+     * @return
+     */
+    private static IntVector div255(IntVector value) {
+        return value.add(128).mul(257).lanewise(VectorOperators.LSHR, 16);
+    }
+
+    /**
+     * Division entière de valeurs positives.
+     * La division passe par les flottants : pour un dividende inférieur à 2^24 et un diviseur de 1 à 255,
+     * le quotient tronqué est exactement celui de la division entière.
+     *
+     * @param dividend
+     * @param divisor Diviseur (au moins 1).
+     * @return
+     */
+    private static IntVector divide(IntVector dividend, IntVector divisor) {
+        FloatVector n = (FloatVector) dividend.convert(VectorOperators.I2F, 0);
+        FloatVector d = (FloatVector) divisor.convert(VectorOperators.I2F, 0);
+        return (IntVector) n.div(d).convert(VectorOperators.F2I, 0);
+    }
+
+    /**
+     * Retourne une composante (de 0 à 255).
+     *
+     * @param pixels
+     * @param shift Position de la composante.
+     * @return
+     */
+    private static IntVector component(IntVector pixels, int shift) {
+        return pixels.lanewise(VectorOperators.LSHR, shift).and(0xff);
+    }
+
+    /**
+     * Assemble un pixel ARGB.
+     *
+     * @param alpha Alpha déjà en place (bits 24 à 31).
+     * @param r
+     * @param g
+     * @param b
+     * @return
+     */
+    private static IntVector pack(IntVector alpha, IntVector r, IntVector g, IntVector b) {
+        return alpha.or(r.lanewise(VectorOperators.LSHL, 16)).or(g.lanewise(VectorOperators.LSHL, 8)).or(b);
+    }
+
+    /**
+     * Voir {@link PixelKernels#premultiply(int[], int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    @Override
+    public int premultiply(int[] pixels, int offset, int length) {
+        int count = SPECIES.loopBound(length);
+
+        for (int i = offset; i < offset + count; i += SPECIES.length()) {
+            IntVector p = IntVector.fromArray(SPECIES, pixels, i);
+            IntVector a = p.lanewise(VectorOperators.LSHR, 24);
+            IntVector r = div255(component(p, 16).mul(a));
+            IntVector g = div255(component(p, 8).mul(a));
+            IntVector b = div255(component(p, 0).mul(a));
+            pack(p.and(0xff000000), r, g, b).intoArray(pixels, i);
+        }
+        return count;
+    }
+
+    /**
+     * Voir {@link PixelKernels#unpremultiply(int[], int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    @Override
+    public int unpremultiply(int[] pixels, int offset, int length) {
+        int count = SPECIES.loopBound(length);
+        IntVector dividend = IntVector.broadcast(SPECIES, 255 << 16);
+
+        for (int i = offset; i < offset + count; i += SPECIES.length()) {
+            IntVector p = IntVector.fromArray(SPECIES, pixels, i);
+            IntVector a = p.lanewise(VectorOperators.LSHR, 24);
+            // Inverse de l'alpha en virgule fixe (16 bits), nul pour un pixel transparent
+            IntVector inv = divide(dividend, a.max(1)).blend(0, a.compare(VectorOperators.EQ, 0));
+            IntVector r = component(p, 16).mul(inv).add(0x8000).lanewise(VectorOperators.LSHR, 16).min(255);
+            IntVector g = component(p, 8).mul(inv).add(0x8000).lanewise(VectorOperators.LSHR, 16).min(255);
+            IntVector b = component(p, 0).mul(inv).add(0x8000).lanewise(VectorOperators.LSHR, 16).min(255);
+            pack(p.and(0xff000000), r, g, b).intoArray(pixels, i);
+        }
+        return count;
+    }
+
+    /**
+     * Voir {@link PixelKernels#compositeOver(int[], int, int[], int, int)}.
+     * Les pixels source transparents conservent la destination, les autres suivent le calcul général
+     * (qui donne exactement la source pour un pixel opaque).
+     *
+     * @param src
+     * @param srcOffset
+     * @param dst
+     * @param dstOffset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    @Override
+    public int compositeOver(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+        int count = SPECIES.loopBound(length);
+
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            IntVector s = IntVector.fromArray(SPECIES, src, srcOffset + i);
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstOffset + i);
+            IntVector sa = s.lanewise(VectorOperators.LSHR, 24);
+            IntVector da = div255(d.lanewise(VectorOperators.LSHR, 24).mul(sa.neg().add(255)));
+            IntVector oa = sa.add(da);
+            IntVector divisor = oa.max(1);
+            IntVector half = oa.lanewise(VectorOperators.ASHR, 1);
+            IntVector r = divide(component(s, 16).mul(sa).add(component(d, 16).mul(da)).add(half), divisor);
+            IntVector g = divide(component(s, 8).mul(sa).add(component(d, 8).mul(da)).add(half), divisor);
+            IntVector b = divide(component(s, 0).mul(sa).add(component(d, 0).mul(da)).add(half), divisor);
+            pack(oa.lanewise(VectorOperators.LSHL, 24), r, g, b)
+                .blend(d, sa.compare(VectorOperators.EQ, 0))
+                .intoArray(dst, dstOffset + i);
+        }
+        return count;
+    }
+
+    /**
+     * Voir {@link PixelKernels#grayscale(int[], int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    @Override
+    public int grayscale(int[] pixels, int offset, int length) {
+        int count = SPECIES.loopBound(length);
+
+        for (int i = offset; i < offset + count; i += SPECIES.length()) {
+            IntVector p = IntVector.fromArray(SPECIES, pixels, i);
+            IntVector l = component(p, 16).mul(77)
+                .add(component(p, 8).mul(150))
+                .add(component(p, 0).mul(29))
+                .lanewise(VectorOperators.LSHR, 8);
+            pack(p.and(0xff000000), l, l, l).intoArray(pixels, i);
+        }
+        return count;
+    }
+
+    /**
+     * Voir {@link PixelKernels#tint(int[], int, int, int, float)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param tr Rouge de la teinte, multiplié par l'intensité.
+     * @param tg Vert de la teinte, multiplié par l'intensité.
+     * @param tb Bleu de la teinte, multiplié par l'intensité.
+     * @param keep Part de la couleur d'origine (sur 256).
+     * @return Nombre de pixels traités.
+     */
+    @Override
+    public int tint(int[] pixels, int offset, int length, int tr, int tg, int tb, int keep) {
+        int count = SPECIES.loopBound(length);
+
+        for (int i = offset; i < offset + count; i += SPECIES.length()) {
+            IntVector p = IntVector.fromArray(SPECIES, pixels, i);
+            IntVector r = component(p, 16).mul(keep).add(tr).lanewise(VectorOperators.LSHR, 8);
+            IntVector g = component(p, 8).mul(keep).add(tg).lanewise(VectorOperators.LSHR, 8);
+            IntVector b = component(p, 0).mul(keep).add(tb).lanewise(VectorOperators.LSHR, 8);
+            pack(p.and(0xff000000), r, g, b).intoArray(pixels, i);
+        }
+        return count;
+    }
+
+    /**
+     * Voir {@link PixelKernels#hasTranslucentPixels(int[], int, int)}.
+     * Le parcours s'arrête avant le premier vecteur contenant un pixel transparent.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels opaques vérifiés depuis le début.
+     */
+    @Override
+    public int countOpaquePixels(int[] pixels, int offset, int length) {
+        int count = SPECIES.loopBound(length);
+        int i = offset;
+
+        // Un pixel est transparent si sa valeur (non signée) est inférieure à 0xff000000
+        while (i < offset + count && !IntVector.fromArray(SPECIES, pixels, i).compare(VectorOperators.UNSIGNED_LT, 0xff000000).anyTrue()) {
+            i += SPECIES.length();
+        }
+        return i - offset;
+    }
+
+    /**
+     * Voir {@link PixelKernels#alphaThreshold(int[], int, int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param alphaMaxLevel
+     * @return Nombre de pixels traités.
+     */
+    @Override
+    public int alphaThreshold(int[] pixels, int offset, int length, int alphaMaxLevel) {
+        int count = SPECIES.loopBound(length);
+        IntVector level = IntVector.broadcast(SPECIES, alphaMaxLevel);
+
+        for (int i = offset; i < offset + count; i += SPECIES.length()) {
+            IntVector p = IntVector.fromArray(SPECIES, pixels, i);
+            // -1 (tous les bits) si opaque, 0 sinon
+            IntVector mask = level.sub(p.lanewise(VectorOperators.LSHR, 24)).lanewise(VectorOperators.ASHR, 31);
+            p.and(0x00ffffff).or(mask.and(0xff000000)).intoArray(pixels, i);
+        }
+        return count;
+    }
+}
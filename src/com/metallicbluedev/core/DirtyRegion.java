@@ -0,0 +1,281 @@
+package com.metallicbluedev.core;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.util.*;
+
+/**
+ * Zones d'une surface à redessiner.
+ * Les rectangles marqués sont fusionnés en un petit nombre de zones:
+ * deux zones sont regroupées lorsque leur union ne gaspille que peu de pixels,
+ * puis les zones les plus proches sont regroupées au-delà du nombre maximum.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class DirtyRegion {
+
+    /**
+     * Nombre maximum de zones par défaut.
+     */
+    public static final int DEFAULT_MAXIMUM_REGIONS = 8;
+
+    /**
+     * Surface maximum de l'union de deux zones, par rapport à la somme de leurs surfaces, pour les fusionner.
+     */
+    private static final double MERGE_RATIO = 1.25d;
+
+    /**
+     * Les zones à redessiner.
+     */
+    private final ArrayList<Rectangle> regions = new ArrayList<>();
+
+    /**
+     * Nombre maximum de zones.
+     */
+    private final int maximumRegions;
+
+    /**
+     * Toute la surface est à redessiner.
+     */
+    private boolean full = false;
+
+    /**
+     * Nouvelles zones avec le nombre maximum de zones par défaut.
+     */
+    public DirtyRegion() {
+        this(DEFAULT_MAXIMUM_REGIONS);
+    }
+
+    /**
+     * Nouvelles zones.
+     *
+     * @param maximumRegions Nombre maximum de zones.
+     */
+    public DirtyRegion(int maximumRegions) {
+        this.maximumRegions = Math.max(1, maximumRegions);
+    }
+
+    /**
+     * Marque un rectangle à redessiner.
+     *
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     */
+    public void add(int x, int y, int width, int height) {
+        add(new Rectangle(x, y, width, height));
+    }
+
+    /**
+     * Marque un rectangle à redessiner.
+     *
+     * @param rectangle
+     */
+    public synchronized void add(Rectangle rectangle) {
+        if (!full && rectangle != null && !rectangle.isEmpty()) {
+            Rectangle merged = new Rectangle(rectangle);
+            boolean changed;
+
+            // Fusion avec les zones voisines, jusqu'à stabilisation
+            do {
+                changed = false;
+                Iterator<Rectangle> it = regions.iterator();
+
+                while (it.hasNext()) {
+                    Rectangle region = it.next();
+
+                    if (getWaste(merged, region) <= 0) {
+                        merged = merged.union(region);
+                        it.remove();
+                        changed = true;
+                    }
+                }
+            } while (changed);
+
+            regions.add(merged);
+
+            while (regions.size() > maximumRegions) {
+                mergeClosest();
+            }
+        }
+    }
+
+    /**
+     * Marque toute la surface à redessiner.
+     */
+    public synchronized void addAll() {
+        full = true;
+        regions.clear();
+    }
+
+    /**
+     * Vérifie si toute la surface est à redessiner.
+     *
+     * @return
+     */
+    public synchronized boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Vérifie si aucune zone n'est à redessiner.
+     *
+     * @return
+     */
+    public synchronized boolean isEmpty() {
+        return !full && regions.isEmpty();
+    }
+
+    /**
+     * Retourne une copie des zones à redessiner, limitées à la surface.
+     *
+     * @param width Largeur de la surface.
+     * @param height Hauteur de la surface.
+     * @return
+     */
+    public synchronized java.util.List<Rectangle> getRegions(int width, int height) {
+        ArrayList<Rectangle> rslt = new ArrayList<>();
+        Rectangle bounds = new Rectangle(0, 0, width, height);
+
+        if (full) {
+            rslt.add(bounds);
+        } else {
+            for (Rectangle region : regions) {
+                Rectangle visible = region.intersection(bounds);
+
+                if (!visible.isEmpty()) {
+                    rslt.add(visible);
+                }
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne la forme de découpe correspondant aux zones à redessiner.
+     *
+     * @param width Largeur de la surface.
+     * @param height Hauteur de la surface.
+     * @return
+     */
+    public synchronized Shape getClip(int width, int height) {
+        Shape clip;
+
+        if (full || regions.size() == 1) {
+            clip = getRegions(width, height).stream().findFirst().orElse(new Rectangle());
+        } else {
+            Area area = new Area();
+
+            for (Rectangle region : getRegions(width, height)) {
+                area.add(new Area(region));
+            }
+
+            clip = area;
+        }
+        return clip;
+    }
+
+    /**
+     * Retourne le nombre de pixels à redessiner.
+     * Les zones pouvant se recouvrir après fusion, la surface de leur union est calculée
+     * sur la grille formée par les bords des zones.
+     *
+     * @param width Largeur de la surface.
+     * @param height Hauteur de la surface.
+     * @return
+     */
+    public synchronized long getArea(int width, int height) {
+        java.util.List<Rectangle> visible = getRegions(width, height);
+        int[] xs = new int[visible.size() * 2];
+        int[] ys = new int[visible.size() * 2];
+
+        for (int i = 0; i < visible.size(); i++) {
+            Rectangle region = visible.get(i);
+            xs[i * 2] = region.x;
+            xs[i * 2 + 1] = region.x + region.width;
+            ys[i * 2] = region.y;
+            ys[i * 2 + 1] = region.y + region.height;
+        }
+
+        Arrays.sort(xs);
+        Arrays.sort(ys);
+        long area = 0;
+
+        for (int i = 0; i + 1 < xs.length; i++) {
+            for (int j = 0; j + 1 < ys.length; j++) {
+                if (xs[i] < xs[i + 1] && ys[j] < ys[j + 1] && isCovered(visible, xs[i], ys[j])) {
+                    area += (long) (xs[i + 1] - xs[i]) * (ys[j + 1] - ys[j]);
+                }
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Vide les zones à redessiner.
+     */
+    public synchronized void clear() {
+        full = false;
+        regions.clear();
+    }
+
+    /**
+     * Fusionne les deux zones dont l'union gaspille le moins de pixels.
+     */
+    private void mergeClosest() {
+        int first = 0;
+        int second = 1;
+        double bestWaste = Double.MAX_VALUE;
+
+        for (int i = 0; i < regions.size(); i++) {
+            for (int j = i + 1; j < regions.size(); j++) {
+                double waste = getWaste(regions.get(i), regions.get(j));
+
+                if (waste < bestWaste) {
+                    bestWaste = waste;
+                    first = i;
+                    second = j;
+                }
+            }
+        }
+
+        Rectangle merged = regions.get(first).union(regions.get(second));
+        regions.remove(second);
+        regions.set(first, merged);
+    }
+
+    /**
+     * Vérifie si un pixel appartient à l'une des zones.
+     *
+     * @param regions
+     * @param x
+     * @param y
+     * @return
+     */
+    private static boolean isCovered(java.util.List<Rectangle> regions, int x, int y) {
+        boolean rslt = false;
+
+        for (Rectangle region : regions) {
+            if (region.contains(x, y)) {
+                rslt = true;
+                break;
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne le nombre de pixels gaspillés par l'union de deux zones, au-delà de la tolérance.
+     * Une valeur négative ou nulle indique que la fusion est avantageuse.
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    private static double getWaste(Rectangle a, Rectangle b) {
+        Rectangle union = a.union(b);
+        return (double) union.width * union.height - MERGE_RATIO * ((double) a.width * a.height + (double) b.width * b.height);
+    }
+}
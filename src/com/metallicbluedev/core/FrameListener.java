@@ -0,0 +1,22 @@
+package com.metallicbluedev.core;
+
+import java.awt.image.*;
+
+/**
+ * Ecouteur des images produites par le rendu hors écran.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public interface FrameListener {
+
+    /**
+     * Une image vient d'être terminée.
+     * Appelé sur le processus de rendu: l'image est réutilisée par les images suivantes
+     * et doit être copiée si elle est conservée.
+     *
+     * @param frame L'image terminée.
+     * @param frameNumber Numéro de l'image (à partir de 1).
+     */
+    void frameRendered(BufferedImage frame, long frameNumber);
+}
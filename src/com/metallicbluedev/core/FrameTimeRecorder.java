@@ -0,0 +1,257 @@
+package com.metallicbluedev.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Enregistreur des temps de rendu par image.
+ * Les mesures sont conservées dans un tampon circulaire sans verrou :
+ * un seul processus écrit (le rendu), les autres peuvent consulter les statistiques à tout moment.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public class FrameTimeRecorder {
+
+    /**
+     * Nombre de mesures conservées par défaut.
+     */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * Les étapes mesurées d'une image.
+     */
+    public enum Phase {
+
+        /**
+         * Obtention des graphismes du buffer.
+         */
+        GRAPHICS,
+        /**
+         * Dessin effectué par l'application.
+         */
+        DRAW,
+        /**
+         * Affichage du buffer (blitting ou flipping).
+         */
+        SHOW,
+        /**
+         * Synchronisation de l'écran vers le système.
+         */
+        SYNC,
+        /**
+         * Durée totale de l'image.
+         */
+        FRAME
+    }
+
+    /**
+     * Les mesures en nanosecondes, rangées par étape.
+     */
+    private final AtomicLongArray samples;
+
+    /**
+     * Masque de l'index du tampon circulaire.
+     */
+    private final int mask;
+
+    /**
+     * Nombre d'image enregistrées.
+     */
+    private final AtomicLong frameCount = new AtomicLong();
+
+    /**
+     * Nombre d'image perdues (non affichées ou hors délai).
+     */
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * Durée maximum d'une image avant d'être considérée comme perdue.
+     */
+    private volatile long frameBudget = TimeUnit.SECONDS.toNanos(1) / RenderLoopManager.DEFAULT_TARGET_FPS;
+
+    public FrameTimeRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Nouvel enregistreur.
+     *
+     * @param capacity Nombre de mesures conservées (arrondi à la puissance de deux supérieure).
+     */
+    public FrameTimeRecorder(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        samples = new AtomicLongArray(size * Phase.values().length);
+    }
+
+    /**
+     * Retourne la durée maximum d'une image (en nanosecondes).
+     *
+     * @return
+     */
+    public long getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * Change la durée maximum d'une image (en nanosecondes).
+     *
+     * @param frameBudget
+     */
+    public void setFrameBudget(long frameBudget) {
+        if (frameBudget > 0) {
+            this.frameBudget = frameBudget;
+        }
+    }
+
+    /**
+     * Enregistre les mesures d'une image.
+     *
+     * @param graphics Temps d'obtention des graphismes.
+     * @param draw Temps de dessin.
+     * @param show Temps d'affichage du buffer.
+     * @param sync Temps de synchronisation.
+     * @param shown Détermine si l'image a été affichée.
+     */
+    public void record(long graphics, long draw, long show, long sync, boolean shown) {
+        long frame = graphics + draw + show + sync;
+        int index = (int) (frameCount.get() & mask);
+        int size = mask + 1;
+
+        samples.lazySet(Phase.GRAPHICS.ordinal() * size + index, graphics);
+        samples.lazySet(Phase.DRAW.ordinal() * size + index, draw);
+        samples.lazySet(Phase.SHOW.ordinal() * size + index, show);
+        samples.lazySet(Phase.SYNC.ordinal() * size + index, sync);
+        samples.lazySet(Phase.FRAME.ordinal() * size + index, frame);
+
+        if (!shown || frame > frameBudget) {
+            droppedFrames.incrementAndGet();
+        }
+
+        // Publication de l'image une fois les mesures écrites
+        frameCount.incrementAndGet();
+    }
+
+    /**
+     * Retourne le nombre d'image enregistrées.
+     *
+     * @return
+     */
+    public long getFrameCount() {
+        return frameCount.get();
+    }
+
+    /**
+     * Retourne le nombre d'image perdues.
+     *
+     * @return
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Retourne le centile de l'étape sur les dernières mesures (en nanosecondes).
+     *
+     * @param phase
+     * @param percentile De 0 à 100.
+     * @return
+     */
+    public long getPercentile(Phase phase, double percentile) {
+        long[] values = getSamples(phase);
+        Arrays.sort(values);
+        return getPercentile(values, percentile);
+    }
+
+    /**
+     * Retourne la durée maximum de l'étape sur les dernières mesures (en nanosecondes).
+     *
+     * @param phase
+     * @return
+     */
+    public long getMaximum(Phase phase) {
+        long rslt = 0;
+
+        for (long value : getSamples(phase)) {
+            rslt = Math.max(rslt, value);
+        }
+        return rslt;
+    }
+
+    /**
+     * Efface toutes les mesures.
+     */
+    public void reset() {
+        droppedFrames.set(0);
+        frameCount.set(0);
+    }
+
+    /**
+     * Retourne une copie des dernières mesures de l'étape.
+     *
+     * @param phase
+     * @return
+     */
+    private long[] getSamples(Phase phase) {
+        int size = mask + 1;
+        int count = (int) Math.min(frameCount.get(), size);
+        long[] values = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            values[i] = samples.get(phase.ordinal() * size + i);
+        }
+        return values;
+    }
+
+    /**
+     * Retourne le résumé des statistiques.
+     *
+     * @return
+     */
+    public String getInformation() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Frames=").append(getFrameCount());
+        builder.append(" Dropped=").append(getDroppedFrames());
+
+        for (Phase phase : Phase.values()) {
+            long[] values = getSamples(phase);
+            Arrays.sort(values);
+
+            builder.append(' ').append(phase.name()).append("(p50/p95/p99/max ms)=");
+            builder.append(toMillis(getPercentile(values, 50))).append('/');
+            builder.append(toMillis(getPercentile(values, 95))).append('/');
+            builder.append(toMillis(getPercentile(values, 99))).append('/');
+            builder.append(toMillis(getPercentile(values, 100)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Retourne le centile d'une liste triée.
+     *
+     * @param sortedValues
+     * @param percentile
+     * @return
+     */
+    private static long getPercentile(long[] sortedValues, double percentile) {
+        long value = 0;
+
+        if (sortedValues.length > 0) {
+            int index = (int) Math.ceil(percentile / 100d * sortedValues.length) - 1;
+            value = sortedValues[Math.max(0, Math.min(sortedValues.length - 1, index))];
+        }
+        return value;
+    }
+
+    /**
+     * Retourne la durée en millisecondes.
+     *
+     * @param nanos
+     * @return
+     */
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1000000d);
+    }
+}
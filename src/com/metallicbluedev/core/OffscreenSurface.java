@@ -0,0 +1,127 @@
+package com.metallicbluedev.core;
+
+import java.awt.image.*;
+
+/**
+ * Surface de rendu en mémoire, sans affichage.
+ * Une série d'images est utilisée à tour de rôle: pendant le dessin de l'image suivante,
+ * les dernières images terminées restent lisibles (export, capture).
+ * <p>
+ * Les images ne sont pas verrouillées: une image terminée n'est plus modifiée pendant le dessin
+ * des <code>bufferCount - 1</code> images suivantes, puis elle est redessinée.
+ * Un autre processus doit donc terminer sa lecture dans ce délai.
+ * Avec une seule image, l'image terminée est redessinée dès l'image suivante:
+ * elle doit alors être lue sur le processus de rendu (voir {@link FrameListener}).
+ *
+ * @version 1.00.02
+ * @author Sebastien Villemain
+ */
+public class OffscreenSurface {
+
+    /**
+     * Nombre d'images par défaut (triple-buffering).
+     * Une image terminée reste intacte pendant le dessin des deux images suivantes.
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 3;
+
+    /**
+     * Les images de la série.
+     */
+    private final BufferedImage[] images;
+
+    /**
+     * Index de l'image en cours de dessin.
+     */
+    private int backIndex = 0;
+
+    /**
+     * Dernière image terminée.
+     */
+    private volatile BufferedImage frontImage = null;
+
+    /**
+     * Nombre d'images terminées.
+     */
+    private volatile long frameNumber = 0;
+
+    /**
+     * Nouvelle surface.
+     *
+     * @param width
+     * @param height
+     * @param bufferCount Nombre d'images de la série.
+     */
+    public OffscreenSurface(int width, int height, int bufferCount) {
+        images = new BufferedImage[Math.max(1, bufferCount)];
+
+        for (int i = 0; i < images.length; i++) {
+            images[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+    }
+
+    /**
+     * Retourne l'image en cours de dessin.
+     *
+     * @return
+     */
+    public synchronized BufferedImage getBackImage() {
+        return images[backIndex];
+    }
+
+    /**
+     * Retourne la dernière image terminée.
+     *
+     * @return BufferedImage or <code>null</code>.
+     */
+    public BufferedImage getFrontImage() {
+        return frontImage;
+    }
+
+    /**
+     * Termine l'image en cours de dessin et passe à l'image suivante de la série.
+     *
+     * @return L'image terminée.
+     */
+    public synchronized BufferedImage swap() {
+        frontImage = images[backIndex];
+        backIndex = (backIndex + 1) % images.length;
+        frameNumber++;
+        return frontImage;
+    }
+
+    /**
+     * Retourne le nombre d'images terminées.
+     *
+     * @return
+     */
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    /**
+     * Retourne le nombre d'images de la série.
+     *
+     * @return
+     */
+    public int getBufferCount() {
+        return images.length;
+    }
+
+    /**
+     * Retourne la largeur de la surface.
+     *
+     * @return
+     */
+    public int getWidth() {
+        return images[0].getWidth();
+    }
+
+    /**
+     * Retourne la hauteur de la surface.
+     *
+     * @return
+     */
+    public int getHeight() {
+        return images[0].getHeight();
+    }
+}
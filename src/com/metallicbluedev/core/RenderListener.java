@@ -0,0 +1,29 @@
+package com.metallicbluedev.core;
+
+import java.awt.*;
+
+/**
+ * Ecouteur de la boucle de rendu.
+ * Sépare la mise à jour de la logique (pas de temps fixe) du dessin (interpolé).
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public interface RenderListener {
+
+    /**
+     * Mise à jour de la logique avec un pas de temps fixe.
+     *
+     * @param step Durée du pas de temps en secondes.
+     */
+    void update(double step);
+
+    /**
+     * Dessin de l'image courante.
+     * Ne pas détruire les graphismes, la boucle de rendu s'en charge.
+     *
+     * @param g
+     * @param interpolation Avancement (de 0 à 1) entre la dernière mise à jour et la suivante.
+     */
+    void render(Graphics2D g, double interpolation);
+}
@@ -0,0 +1,387 @@
+package com.metallicbluedev.core;
+
+import com.metallicbluedev.factory.*;
+import com.metallicbluedev.logger.*;
+import com.metallicbluedev.threading.*;
+import java.awt.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Gestionnaire de la boucle de rendu.
+ * Mise à jour à pas de temps fixe, dessin interpolé et cadencement sans attente active.
+ * Le rendu est effectué sur le {@link ScreenManager} enregistré dans la fabrique.
+ *
+ * @version 1.01.02
+ * @author Sebastien Villemain
+ */
+public class RenderLoopManager implements EntityProcess, ServiceProcess {
+
+    /**
+     * Nombre d'image par seconde par défaut.
+     */
+    public static final int DEFAULT_TARGET_FPS = 60;
+
+    /**
+     * Nombre de mise à jour par seconde par défaut.
+     */
+    public static final int DEFAULT_UPDATE_RATE = 60;
+
+    /**
+     * Temps maximum rattrapé en une seule image (en nanosecondes).
+     * Evite l'emballement des mises à jour après une longue pause.
+     */
+    private static final long MAX_FRAME_TIME = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * Temps maximum d'attente de la fin de la boucle lors de l'arrêt (en millisecondes).
+     */
+    private static final long STOP_TIMEOUT = 1000;
+
+    /**
+     * Liste des écouteurs de rendu.
+     */
+    private final CopyOnWriteArrayList<RenderListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Nombre d'image par seconde souhaité.
+     */
+    private volatile int targetFps = DEFAULT_TARGET_FPS;
+
+    /**
+     * Nombre de mise à jour par seconde.
+     */
+    private volatile int updateRate = DEFAULT_UPDATE_RATE;
+
+    /**
+     * Nombre d'image par seconde mesuré.
+     */
+    private volatile int currentFps = 0;
+
+    /**
+     * Etat de la boucle.
+     */
+    private volatile boolean running = false;
+
+    /**
+     * Le dernier processus arrêté, dont la fin est attendue avant un redémarrage.
+     */
+    private Thread stoppedProcess = null;
+
+    /**
+     * Le processus exécutant la boucle.
+     * Seul ce processus peut dessiner : un ancien processus arrêté quitte sa boucle même si la boucle est redémarrée.
+     */
+    private volatile Thread process = null;
+
+    protected RenderLoopManager() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Ajoute un écouteur de rendu.
+     *
+     * @param listener
+     */
+    public void addRenderListener(RenderListener listener) {
+        if (listener != null) {
+            listeners.addIfAbsent(listener);
+        }
+    }
+
+    /**
+     * Supprime un écouteur de rendu.
+     *
+     * @param listener
+     */
+    public void removeRenderListener(RenderListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Retourne le nombre d'image par seconde souhaité.
+     *
+     * @return
+     */
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    /**
+     * Change le nombre d'image par seconde souhaité.
+     *
+     * @param targetFps
+     */
+    public void setTargetFps(int targetFps) {
+        if (targetFps > 0) {
+            this.targetFps = targetFps;
+        }
+    }
+
+    /**
+     * Retourne le nombre de mise à jour par seconde.
+     *
+     * @return
+     */
+    public int getUpdateRate() {
+        return updateRate;
+    }
+
+    /**
+     * Change le nombre de mise à jour par seconde.
+     *
+     * @param updateRate
+     */
+    public void setUpdateRate(int updateRate) {
+        if (updateRate > 0) {
+            this.updateRate = updateRate;
+        }
+    }
+
+    /**
+     * Retourne le nombre d'image par seconde mesuré lors de la dernière seconde.
+     *
+     * @return
+     */
+    public int getCurrentFps() {
+        return currentFps;
+    }
+
+    @Override
+    public void run() {
+        ScreenManager screen = FactoryManager.getInstance(ScreenManager.class);
+
+        long previousTime = System.nanoTime();
+        long nextFrameTime = previousTime;
+        long accumulator = 0;
+        long fpsTime = previousTime;
+        int frames = 0;
+
+        while (isCurrentLoop()) {
+            long updateStep = TimeUnit.SECONDS.toNanos(1) / updateRate;
+            long frameStep = TimeUnit.SECONDS.toNanos(1) / targetFps;
+
+            if (screen != null) {
+                screen.getFrameTimeRecorder().setFrameBudget(frameStep);
+            }
+
+            long currentTime = System.nanoTime();
+            accumulator += Math.min(currentTime - previousTime, MAX_FRAME_TIME);
+            previousTime = currentTime;
+
+            // Mise à jour à pas de temps fixe
+            while (accumulator >= updateStep) {
+                fireUpdate((double) updateStep / TimeUnit.SECONDS.toNanos(1));
+                accumulator -= updateStep;
+            }
+
+            // Dessin interpolé entre deux mises à jour
+            if (render(screen, (double) accumulator / updateStep)) {
+                frames++;
+            }
+
+            if (currentTime - fpsTime >= TimeUnit.SECONDS.toNanos(1)) {
+                currentFps = frames;
+                frames = 0;
+                fpsTime = currentTime;
+            }
+
+            // Cadencement: on attend la prochaine image sans occuper le processeur
+            nextFrameTime += frameStep;
+            long remaining = nextFrameTime - System.nanoTime();
+
+            if (remaining < -frameStep) {
+                // Trop de retard, inutile de tenter de le rattraper
+                nextFrameTime = System.nanoTime();
+            }
+
+            while (isCurrentLoop() && (remaining = nextFrameTime - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+
+        currentFps = 0;
+    }
+
+    /**
+     * Dessine l'image courante.
+     * Le dessin est recommencé tant que le contenu du buffer est restauré ou perdu.
+     * Un contenu perdu est redessiné après l'attente d'une image, pour ne pas occuper le processeur
+     * tant qu'il reste perdu (fenêtre réduite, périphérique réinitialisé).
+     * Avec le suivi des zones à redessiner, l'image est ignorée si aucune zone n'a été marquée.
+     *
+     * @param screen
+     * @param interpolation
+     * @return boolean L'image a été affichée.
+     */
+    private boolean render(ScreenManager screen, double interpolation) {
+        boolean rendered = false;
+
+        if (screen != null && screen.isDirty()) {
+            do {
+                do {
+                    Graphics2D g = screen.getGraphics();
+
+                    if (g == null) {
+                        // Le buffer n'est pas encore prêt, image ignorée
+                        return false;
+                    }
+
+                    try {
+                        fireRender(g, interpolation);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (screen.contentsRestored());
+
+                screen.update();
+                rendered = true;
+            } while (isCurrentLoop() && screen.contentsLost() && awaitRetry());
+        }
+        return rendered;
+    }
+
+    /**
+     * Attend la durée d'une image avant de redessiner un contenu perdu.
+     *
+     * @return boolean La boucle est toujours en cours.
+     */
+    private boolean awaitRetry() {
+        LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1) / targetFps);
+        return isCurrentLoop();
+    }
+
+    /**
+     * Vérifie si le processus courant est celui de la boucle en cours.
+     *
+     * @return
+     */
+    private boolean isCurrentLoop() {
+        return running && process == Thread.currentThread();
+    }
+
+    /**
+     * Notifie la mise à jour de la logique.
+     *
+     * @param step
+     */
+    private void fireUpdate(double step) {
+        for (RenderListener listener : listeners) {
+            try {
+                listener.update(step);
+            } catch (RuntimeException ex) {
+                LoggerManager.getInstance().addError(ex);
+            }
+        }
+    }
+
+    /**
+     * Notifie le dessin de l'image.
+     *
+     * @param g
+     * @param interpolation
+     */
+    private void fireRender(Graphics2D g, double interpolation) {
+        for (RenderListener listener : listeners) {
+            try {
+                listener.render(g, interpolation);
+            } catch (RuntimeException ex) {
+                LoggerManager.getInstance().addError(ex);
+            }
+        }
+    }
+
+    /**
+     * Démarre la boucle.
+     * Attend d'abord la fin de l'image en cours de la boucle précédente, si elle vient d'être arrêtée.
+     */
+    @Override
+    public void start() {
+        Thread previous = null;
+        boolean done = false;
+
+        while (!done) {
+            awaitTermination(previous);
+
+            synchronized (this) {
+                if (running || stoppedProcess == previous) {
+                    if (!running) {
+                        running = true;
+                        stoppedProcess = null;
+
+                        Thread thread = new ThreadHolderTask(this);
+                        thread.setName("RenderLoop");
+                        process = thread;
+                        thread.start();
+                    }
+
+                    done = true;
+                } else {
+                    // Une boucle a été arrêtée entre temps: attente de sa fin, sans le verrou
+                    previous = stoppedProcess;
+                }
+            }
+        }
+    }
+
+    /**
+     * Arrête la boucle.
+     * Hors du processus de rendu, attend la fin de l'image en cours avant de rendre la main,
+     * afin qu'un redémarrage immédiat ne dessine jamais en même temps que l'ancienne boucle.
+     */
+    @Override
+    public void stop() {
+        Thread thread;
+
+        synchronized (this) {
+            running = false;
+            thread = process;
+
+            if (thread != null) {
+                process = null;
+                stoppedProcess = thread;
+                LockSupport.unpark(thread);
+            }
+        }
+
+        // Attente sans le verrou: la boucle peut être redémarrée ou consultée entre temps
+        awaitTermination(thread);
+    }
+
+    /**
+     * Attend la fin du processus de la boucle, sauf depuis ce processus lui-même.
+     *
+     * @param thread
+     */
+    private static void awaitTermination(Thread thread) {
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(STOP_TIMEOUT);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                LoggerManager.getInstance().addError(ex);
+            }
+        }
+    }
+
+    @Override
+    public boolean running() {
+        return running;
+    }
+
+    @Override
+    public String getInformation() {
+        return ("RenderLoop=" + (running ? "On" : "Off") + " TargetFps=" + targetFps + " UpdateRate=" + updateRate + " CurrentFps=" + currentFps);
+    }
+
+    @Override
+    public void createProcess() {
+    }
+
+    @Override
+    public void destroyProcess() {
+        if (running()) {
+            stop();
+        }
+    }
+}
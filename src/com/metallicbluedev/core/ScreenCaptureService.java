@@ -0,0 +1,418 @@
+package com.metallicbluedev.core;
+
+import com.metallicbluedev.logger.*;
+import com.metallicbluedev.threading.*;
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Capture périodique de la zone gérée par le {@link ScreenManager}.
+ * Les captures sont effectuées à cadence fixe sur un processus dédié et placées dans une file limitée.
+ * Les images sont réutilisées: une image consommée doit être rendue via {@link #recycle(CapturedFrame)}.
+ * <p>
+ * Lorsque le rendu est effectué hors écran, l'image est copiée directement depuis la surface en mémoire,
+ * sur le processus de rendu (via un {@link FrameListener}) pour ne jamais lire une image en cours de dessin.
+ * Sinon, la capture passe par un {@link Robot}, conservé pour chaque écran tant que l'écran est branché.
+ * Le {@link Robot} ne sait pas capturer dans une image existante: chaque capture crée une nouvelle image,
+ * placée telle quelle dans la file (sans copie supplémentaire).
+ * Seules les captures du rendu hors écran réutilisent les images rendues.
+ *
+ * @version 1.00.02
+ * @author Sebastien Villemain
+ */
+public class ScreenCaptureService implements ServiceProcess {
+
+    /**
+     * Nombre de captures par seconde par défaut.
+     */
+    public static final int DEFAULT_FRAME_RATE = 15;
+
+    /**
+     * Nombre maximum de captures en attente par défaut.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    /**
+     * Les robots de capture, un par écran.
+     */
+    private static final ConcurrentHashMap<GraphicsDevice, Robot> ROBOTS = new ConcurrentHashMap<>();
+
+    /**
+     * Suppression des robots des écrans débranchés.
+     */
+    private static final ScreenDeviceListener ROBOTS_CLEANER = (GraphicsDevice[] devices) -> ROBOTS.keySet().retainAll(Arrays.asList(devices));
+
+    /**
+     * L'écran à capturer.
+     */
+    private final ScreenManager screen;
+
+    /**
+     * Nombre de captures par seconde.
+     */
+    private final int frameRate;
+
+    /**
+     * Nombre maximum de captures en attente.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Les captures en attente de consommation.
+     */
+    private final ArrayBlockingQueue<CapturedFrame> frames;
+
+    /**
+     * Les images rendues, réutilisées pour les captures suivantes.
+     */
+    private final ArrayDeque<BufferedImage> freeBuffers = new ArrayDeque<>();
+
+    /**
+     * Nombre de captures effectuées.
+     */
+    private final AtomicLong capturedFrames = new AtomicLong();
+
+    /**
+     * Nombre de captures perdues (file pleine).
+     */
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * Une copie de la prochaine image rendue hors écran est demandée.
+     */
+    private final AtomicBoolean frameRequested = new AtomicBoolean();
+
+    /**
+     * Copie des images rendues hors écran, sur le processus de rendu.
+     */
+    private final FrameListener frameListener = this::frameRendered;
+
+    private ScheduledExecutorService executor = null;
+
+    private ScheduledFuture<?> task = null;
+
+    /**
+     * Nouvelle capture avec la cadence et la taille de file par défaut.
+     *
+     * @param screen
+     */
+    public ScreenCaptureService(ScreenManager screen) {
+        this(screen, DEFAULT_FRAME_RATE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Nouvelle capture.
+     *
+     * @param screen L'écran à capturer.
+     * @param frameRate Nombre de captures par seconde.
+     * @param queueCapacity Nombre maximum de captures en attente.
+     */
+    public ScreenCaptureService(ScreenManager screen, int frameRate, int queueCapacity) {
+        this.screen = screen;
+        this.frameRate = Math.max(1, frameRate);
+
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        frames = new ArrayBlockingQueue<>(this.queueCapacity);
+    }
+
+    /**
+     * Retourne le robot de capture de l'écran.
+     * Le robot est créé à la première utilisation puis conservé,
+     * jusqu'à ce que le {@link ScreenManager} signale le débranchement de l'écran (voir {@link ScreenManager#refreshDevices()}).
+     *
+     * @param device
+     * @return
+     * @throws AWTException
+     */
+    public static Robot getRobot(GraphicsDevice device) throws AWTException {
+        Robot robot = ROBOTS.get(device);
+
+        if (robot == null) {
+            ScreenManager.addScreenDeviceListener(ROBOTS_CLEANER);
+            robot = new Robot(device);
+
+            Robot previous = ROBOTS.putIfAbsent(device, robot);
+
+            if (previous != null) {
+                robot = previous;
+            }
+        }
+        return robot;
+    }
+
+    /**
+     * Capture la zone gérée par l'écran.
+     * Lors d'un rendu hors écran, la dernière image terminée est copiée dans l'image de destination si elle est compatible,
+     * sinon dans une nouvelle image. La copie est effectuée depuis le processus appelant:
+     * elle ne reste intacte que pendant le dessin des <code>bufferCount - 1</code> images suivantes (voir {@link OffscreenSurface}).
+     * Avec une seule image, la copie doit être effectuée sur le processus de rendu (voir {@link FrameListener}).
+     * La capture par {@link Robot} retourne toujours une nouvelle image, sans utiliser la destination.
+     * En cas d'erreur ou si la zone n'est pas visible, retourne
+     * <code>null</code>.
+     *
+     * @param screen
+     * @param destination Image de destination ou <code>null</code>.
+     * @return
+     */
+    public static BufferedImage capture(ScreenManager screen, BufferedImage destination) {
+        BufferedImage image = null;
+        BufferedImage frame = screen.getOffscreenFrame();
+
+        if (frame != null) {
+            // Le rendu nous appartient: aucune capture d'écran nécessaire
+            image = copy(frame, destination);
+        } else {
+            image = captureScreen(screen);
+        }
+        return image;
+    }
+
+    /**
+     * Capture la zone gérée par l'écran via le {@link Robot}, dans une nouvelle image.
+     * En cas d'erreur ou si la zone n'est pas visible, retourne
+     * <code>null</code>.
+     *
+     * @param screen
+     * @return
+     */
+    private static BufferedImage captureScreen(ScreenManager screen) {
+        BufferedImage image = null;
+        Container zone = screen.getComponent();
+
+        if (zone != null && zone.isShowing()) {
+            try {
+                Robot robot = getRobot(zone.getGraphicsConfiguration().getDevice());
+                image = robot.createScreenCapture(new Rectangle(zone.getLocationOnScreen(), zone.getSize()));
+            } catch (AWTException | SecurityException e) {
+                LoggerManager.getInstance().addError(e);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Capture la zone gérée par l'écran dans l'image de destination.
+     *
+     * @param destination Image de destination ou <code>null</code>.
+     * @return
+     */
+    public BufferedImage capture(BufferedImage destination) {
+        return capture(screen, destination);
+    }
+
+    /**
+     * Retourne la capture la plus ancienne, sans attendre.
+     *
+     * @return CapturedFrame or <code>null</code>.
+     */
+    public CapturedFrame poll() {
+        return frames.poll();
+    }
+
+    /**
+     * Retourne la capture la plus ancienne, en attendant au plus le délai.
+     *
+     * @param timeout
+     * @param unit
+     * @return CapturedFrame or <code>null</code>.
+     * @throws InterruptedException
+     */
+    public CapturedFrame poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return frames.poll(timeout, unit);
+    }
+
+    /**
+     * Rend l'image d'une capture consommée, pour les captures suivantes.
+     *
+     * @param frame
+     */
+    public void recycle(CapturedFrame frame) {
+        if (frame != null) {
+            recycle(frame.image());
+        }
+    }
+
+    /**
+     * Retourne le nombre de captures effectuées.
+     *
+     * @return
+     */
+    public long getCapturedFrames() {
+        return capturedFrames.get();
+    }
+
+    /**
+     * Retourne le nombre de captures perdues car la file était pleine.
+     *
+     * @return
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Retourne le nombre de captures par seconde.
+     *
+     * @return
+     */
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    @Override
+    public void run() {
+        if (screen.isOffscreen()) {
+            // La copie est effectuée par le processus de rendu, à la prochaine image
+            frameRequested.set(true);
+        } else {
+            // Le robot crée sa propre image: aucune image rendue n'est utilisée
+            offer(null, captureScreen(screen));
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (task == null) {
+            executor = Executors.newSingleThreadScheduledExecutor((Runnable r) -> {
+                Thread thread = new Thread(r, "ScreenCapture");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            screen.addFrameListener(frameListener);
+
+            task = executor.scheduleAtFixedRate(() -> {
+                try {
+                    run();
+                } catch (RuntimeException ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
+            }, 0, TimeUnit.SECONDS.toNanos(1) / frameRate, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            executor.shutdown();
+            screen.removeFrameListener(frameListener);
+            frameRequested.set(false);
+            task = null;
+            executor = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean running() {
+        return task != null;
+    }
+
+    /**
+     * Copie une image rendue hors écran lorsqu'une capture est demandée.
+     * Appelé sur le processus de rendu: l'image n'est pas modifiée pendant la copie.
+     *
+     * @param frame
+     * @param frameNumber
+     */
+    private void frameRendered(BufferedImage frame, long frameNumber) {
+        if (frameRequested.getAndSet(false)) {
+            BufferedImage buffer = getFreeBuffer();
+            offer(buffer, copy(frame, buffer));
+        }
+    }
+
+    /**
+     * Retourne une image rendue, ou <code>null</code> si aucune n'est disponible.
+     *
+     * @return
+     */
+    private BufferedImage getFreeBuffer() {
+        synchronized (freeBuffers) {
+            return freeBuffers.pollLast();
+        }
+    }
+
+    /**
+     * Place une capture dans la file.
+     *
+     * @param buffer L'image rendue utilisée pour la capture ou <code>null</code>.
+     * @param image L'image capturée ou <code>null</code>.
+     */
+    private void offer(BufferedImage buffer, BufferedImage image) {
+        // Si la taille ou le type a changé, l'ancienne image est abandonnée
+        if (image == null) {
+            recycle(buffer);
+        } else {
+            if (frames.offer(new CapturedFrame(image, System.nanoTime()))) {
+                capturedFrames.incrementAndGet();
+            } else {
+                // Le consommateur est en retard: la capture est perdue
+                droppedFrames.incrementAndGet();
+                recycle(image);
+            }
+        }
+    }
+
+    /**
+     * Rend une image pour les captures suivantes.
+     * Le nombre d'images conservées est limité à la taille de la file.
+     * Les images ne sont conservées que pour le rendu hors écran, la capture par {@link Robot} ne les réutilisant pas.
+     *
+     * @param image
+     */
+    private void recycle(BufferedImage image) {
+        if (image != null && screen.isOffscreen()) {
+            synchronized (freeBuffers) {
+                if (freeBuffers.size() < queueCapacity) {
+                    freeBuffers.addLast(image);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copie l'image source dans l'image de destination.
+     * Une nouvelle image est créée si la destination n'a pas la même taille ou le même type.
+     *
+     * @param source
+     * @param destination
+     * @return
+     */
+    private static BufferedImage copy(BufferedImage source, BufferedImage destination) {
+        int type = source.getType() != BufferedImage.TYPE_CUSTOM ? source.getType() : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage rslt = destination;
+
+        if (rslt == null
+            || rslt.getWidth() != source.getWidth()
+            || rslt.getHeight() != source.getHeight()
+            || rslt.getType() != type) {
+            rslt = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        }
+
+        if (source.getType() == type) {
+            // Copie directe des pixels
+            rslt.getRaster().setDataElements(0, 0, source.getRaster());
+        } else {
+            Graphics2D g = rslt.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(source, 0, 0, null);
+            g.dispose();
+        }
+        return rslt;
+    }
+
+    /**
+     * Une capture.
+     *
+     * @param image L'image capturée.
+     * @param time Date de la capture ({@link System#nanoTime()}).
+     */
+    public record CapturedFrame(BufferedImage image, long time) {
+
+    }
+}
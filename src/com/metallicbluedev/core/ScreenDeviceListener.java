@@ -0,0 +1,19 @@
+package com.metallicbluedev.core;
+
+import java.awt.*;
+
+/**
+ * Ecouteur du changement de la liste des écrans (branchement ou débranchement d'un écran).
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public interface ScreenDeviceListener {
+
+    /**
+     * La liste des écrans disponibles a changé.
+     *
+     * @param devices La nouvelle liste des écrans.
+     */
+    void devicesChanged(GraphicsDevice[] devices);
+}
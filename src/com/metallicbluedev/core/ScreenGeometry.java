@@ -0,0 +1,294 @@
+package com.metallicbluedev.core;
+
+import java.awt.*;
+import java.util.*;
+
+/**
+ * Index de la géométrie des écrans.
+ * Les dimensions de chaque écran sont calculées une seule fois,
+ * la recherche de l'écran contenant un point n'effectue aucune allocation.
+ * <p>
+ * Cet index est immuable, il doit être recréé lors d'un changement d'affichage.
+ * Il conserve le mode d'affichage, les dimensions et les marges de la configuration par défaut de chaque écran
+ * afin de détecter un changement (résolution, mise à l'échelle, disposition, barre des tâches) via {@link #isCurrent(java.awt.GraphicsDevice[])}.
+ * Cette vérification interroge le système : elle est effectuée lors du rechargement de la liste des écrans
+ * (voir {@link ScreenManager#refreshDevices()}), jamais lors de la lecture de l'index.
+ *
+ * @version 1.00.02
+ * @author Sebastien Villemain
+ */
+public class ScreenGeometry {
+
+    /**
+     * Numéro de génération lors de la création de l'index.
+     */
+    private final long generation;
+
+    /**
+     * Liste des écrans indexés.
+     */
+    private final GraphicsDevice[] devices;
+
+    /**
+     * Mode d'affichage de chaque écran lors de la création de l'index.
+     */
+    private final DisplayMode[] displayModes;
+
+    /**
+     * Dimensions de la configuration par défaut de chaque écran lors de la création de l'index.
+     */
+    private final Rectangle[] configurationBounds;
+
+    /**
+     * Position horizontale de chaque écran.
+     */
+    private final int[] x;
+
+    /**
+     * Position verticale de chaque écran.
+     */
+    private final int[] y;
+
+    /**
+     * Largeur de chaque écran.
+     */
+    private final int[] width;
+
+    /**
+     * Hauteur de chaque écran.
+     */
+    private final int[] height;
+
+    /**
+     * Marges réservées par le système (barre des tâches...) de chaque écran.
+     */
+    private final Insets[] insets;
+
+    /**
+     * Dimensions maximum (union de tous les écrans).
+     */
+    private final Rectangle maximumBounds;
+
+    private ScreenGeometry(GraphicsDevice[] devices, long generation) {
+        int count = devices.length;
+        this.devices = devices;
+        this.generation = generation;
+        displayModes = new DisplayMode[count];
+        configurationBounds = new Rectangle[count];
+        x = new int[count];
+        y = new int[count];
+        width = new int[count];
+        height = new int[count];
+        insets = new Insets[count];
+        maximumBounds = new Rectangle();
+    }
+
+    /**
+     * Création de l'index pour la liste des écrans.
+     *
+     * @param devices
+     * @param generation
+     * @return
+     */
+    static ScreenGeometry create(GraphicsDevice[] devices, long generation) {
+        ScreenGeometry geometry = new ScreenGeometry(devices, generation);
+        Rectangle bounds = new Rectangle();
+
+        for (int i = 0; i < devices.length; i++) {
+            bounds.setBounds(0, 0, 0, 0);
+            GraphicsConfiguration[] configurations = devices[i].getConfigurations();
+
+            for (GraphicsConfiguration configuration : configurations) {
+                Rectangle.union(bounds, configuration.getBounds(), bounds);
+            }
+
+            geometry.x[i] = bounds.x;
+            geometry.y[i] = bounds.y;
+            geometry.width[i] = bounds.width;
+            geometry.height[i] = bounds.height;
+
+            GraphicsConfiguration configuration = devices[i].getDefaultConfiguration();
+            geometry.displayModes[i] = devices[i].getDisplayMode();
+            geometry.configurationBounds[i] = configuration.getBounds();
+            geometry.insets[i] = getInsets(configuration);
+
+            Rectangle.union(geometry.maximumBounds, bounds, geometry.maximumBounds);
+        }
+        return geometry;
+    }
+
+    /**
+     * Retourne les marges réservées par le système.
+     *
+     * @param configuration
+     * @return
+     */
+    private static Insets getInsets(GraphicsConfiguration configuration) {
+        Insets insets = null;
+
+        if (configuration != null) {
+            try {
+                insets = Toolkit.getDefaultToolkit().getScreenInsets(configuration);
+            } catch (HeadlessException e) {
+                insets = null;
+            }
+        }
+
+        if (insets == null) {
+            insets = new Insets(0, 0, 0, 0);
+        }
+        return insets;
+    }
+
+    /**
+     * Retourne le numéro de génération lors de la création de l'index.
+     *
+     * @return
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Vérifie si l'index correspond toujours à l'affichage.
+     * Le mode d'affichage, les dimensions et les marges de chaque écran sont relus et comparés.
+     *
+     * @param list Liste des écrans disponibles.
+     * @return
+     */
+    boolean isCurrent(GraphicsDevice[] list) {
+        boolean rslt = list == devices;
+
+        for (int i = 0; rslt && i < devices.length; i++) {
+            GraphicsConfiguration configuration = devices[i].getDefaultConfiguration();
+
+            rslt = Objects.equals(displayModes[i], devices[i].getDisplayMode())
+                   && configurationBounds[i].equals(configuration.getBounds())
+                   && insets[i].equals(getInsets(configuration));
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne le nombre d'écran.
+     *
+     * @return
+     */
+    public int getDeviceCount() {
+        return x.length;
+    }
+
+    /**
+     * Retourne le numéro de l'écran contenant le point.
+     * Si aucun écran ne contient le point, retourne -1.
+     *
+     * @param px
+     * @param py
+     * @return
+     */
+    public int indexOf(int px, int py) {
+        int index = -1;
+
+        for (int i = 0; i < x.length; i++) {
+            if (contains(i, px, py)) {
+                index = i;
+                break;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Vérifie si l'écran contient le point.
+     *
+     * @param device
+     * @param px
+     * @param py
+     * @return
+     */
+    public boolean contains(int device, int px, int py) {
+        return px >= x[device]
+               && py >= y[device]
+               && px < x[device] + width[device]
+               && py < y[device] + height[device];
+    }
+
+    /**
+     * Retourne la largeur de l'écran.
+     *
+     * @param device
+     * @return
+     */
+    public int getWidth(int device) {
+        return width[device];
+    }
+
+    /**
+     * Retourne la hauteur de l'écran.
+     *
+     * @param device
+     * @return
+     */
+    public int getHeight(int device) {
+        return height[device];
+    }
+
+    /**
+     * Retourne les dimensions de l'écran.
+     *
+     * @param device
+     * @return
+     */
+    public Rectangle getBounds(int device) {
+        return new Rectangle(x[device], y[device], width[device], height[device]);
+    }
+
+    /**
+     * Retourne les dimensions utilisables de l'écran (hors marges réservées par le système).
+     *
+     * @param device
+     * @return
+     */
+    public Rectangle getUsableBounds(int device) {
+        Insets i = insets[device];
+        return new Rectangle(x[device] + i.left, y[device] + i.top,
+                             width[device] - i.left - i.right, height[device] - i.top - i.bottom);
+    }
+
+    /**
+     * Retourne les marges réservées par le système de l'écran.
+     *
+     * @param device
+     * @return
+     */
+    public Insets getInsets(int device) {
+        return (Insets) insets[device].clone();
+    }
+
+    /**
+     * Retourne les dimensions maximum (gestion du multi-écran inclus).
+     *
+     * @return
+     */
+    public Rectangle getMaximumBounds() {
+        return new Rectangle(maximumBounds);
+    }
+
+    /**
+     * Retourne la largeur maximum (gestion du multi-écran inclus).
+     *
+     * @return
+     */
+    public int getMaximumWidth() {
+        return maximumBounds.width;
+    }
+
+    /**
+     * Retourne la hauteur maximum (gestion du multi-écran inclus).
+     *
+     * @return
+     */
+    public int getMaximumHeight() {
+        return maximumBounds.height;
+    }
+}
@@ -6,32 +6,121 @@ import com.metallicbluedev.threading.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.*;
-import java.lang.reflect.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import javax.imageio.*;
 import javax.swing.*;
 
 /**
  * Gestionnaire d'écran.
  * Permet principalement la gestion d'accélération graphique.
  * Entièrement compatible avec le mode fenêtrée et le plein écran.
+ * Le rendu peut également être effectué hors écran, en mémoire (rapports, serveur sans affichage).
+ * <p>
+ * Le branchement d'un écran n'est détecté que sur appel de {@link #refreshDevices()} :
+ * la vérification périodique est à activer via {@link #setDevicePollingInterval(long)}.
  * <p>
  * Remarque :
  * Ne pas oublier de le rafraichir et de détruire les graphismes.
  *
- * @version 3.00.03
+ * @version 3.06.09
  * @author Sebastien Villemain
  */
 public class ScreenManager implements EntityProcess {
 
     /**
      * Liste des écrans disponibles.
+     * Chargée à la première utilisation, puis sur demande via {@link #refreshDevices()}.
+     */
+    private static volatile GraphicsDevice[] devices = null;
+
+    /**
+     * Liste des écouteurs du changement d'écran.
+     */
+    private static final CopyOnWriteArrayList<ScreenDeviceListener> DEVICE_LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Délai par défaut avant la détection du changement d'écran (en millisecondes).
+     */
+    public static final long DEFAULT_DEVICE_DEBOUNCE_DELAY = 500;
+
+    /**
+     * Intervalle recommandé de la vérification de la liste des écrans (en millisecondes).
+     * La vérification est désactivée par défaut, voir {@link #setDevicePollingInterval(long)}.
+     */
+    public static final long DEFAULT_DEVICE_POLLING_INTERVAL = 2000;
+
+    /**
+     * Nombre de buffers par défaut (double-buffering).
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 2;
+
+    /**
+     * Nombre maximum de buffers (triple-buffering).
+     */
+    public static final int MAXIMUM_BUFFER_COUNT = 3;
+
+    /**
+     * Nombre d'images d'une fenêtre de mesure, avant d'adapter le nombre de buffers.
+     */
+    private static final int ADAPTIVE_SAMPLE_FRAMES = 120;
+
+    /**
+     * Part des images perdues au-delà de laquelle une fenêtre de mesure manque son échéance.
+     */
+    private static final double ADAPTIVE_DROPPED_RATIO = 0.05d;
+
+    /**
+     * Nombre de fenêtres consécutives manquant leur échéance avant d'ajouter un buffer.
+     * Une pause isolée (ramasse-miettes, déplacement de la fenêtre) ne suffit pas.
+     */
+    private static final int ADAPTIVE_MISSED_WINDOWS = 2;
+
+    /**
+     * Part du délai d'une image sous laquelle une fenêtre de mesure est largement dans son échéance.
+     */
+    private static final double ADAPTIVE_RELAXED_RATIO = 0.5d;
+
+    /**
+     * Nombre de fenêtres consécutives largement dans leur échéance avant de retirer le buffer ajouté.
+     */
+    private static final int ADAPTIVE_RELAXED_WINDOWS = 5;
+
+    /**
+     * Planificateur partagé de la détection du changement d'écran.
+     * Un seul processus de faible priorité, démarré à la première utilisation.
      */
-    private static final GraphicsDevice[] DEVICES = getDevices();
+    private static final ScheduledThreadPoolExecutor DEVICE_SCHEDULER = createDeviceScheduler();
 
     /**
      * Gestionnaire de configuration graphique.
      */
     private static GraphicsConfiguration graphicsConfiguration = null;
 
+    /**
+     * Index de la géométrie des écrans.
+     */
+    private static final AtomicReference<ScreenGeometry> SCREEN_GEOMETRY = new AtomicReference<>();
+
+    /**
+     * Génération de l'index de la géométrie des écrans, incrémentée à chaque invalidation.
+     */
+    private static final AtomicLong SCREEN_GEOMETRY_GENERATION = new AtomicLong();
+
+    /**
+     * Intervalle de la vérification de la liste des écrans (en millisecondes).
+     * Désactivée par défaut (valeur nulle).
+     * Protégé par le verrou de la liste des écouteurs.
+     */
+    private static long devicePollingInterval = 0;
+
+    /**
+     * Vérification périodique de la liste des écrans, active tant qu'un écouteur est enregistré.
+     */
+    private static ScheduledFuture<?> devicePolling = null;
+
     /**
      * La stratégie appliquée sur l'écran.
      */
@@ -53,6 +142,108 @@ public class ScreenManager implements EntityProcess {
      */
     private boolean fullScreenWindow = false;
 
+    /**
+     * Délai avant la détection du changement d'écran (en millisecondes).
+     */
+    private volatile long deviceDebounceDelay = DEFAULT_DEVICE_DEBOUNCE_DELAY;
+
+    /**
+     * Mesure des temps de rendu.
+     */
+    private final FrameTimeRecorder frameTimes = new FrameTimeRecorder();
+
+    /**
+     * Temps d'obtention des graphismes de l'image en cours.
+     */
+    private volatile long graphicsTime = 0;
+
+    /**
+     * Début du dessin de l'image en cours (0 si aucun dessin en cours).
+     */
+    private volatile long drawStartTime = 0;
+
+    /**
+     * Zones de l'écran à redessiner.
+     */
+    private final DirtyRegion dirtyRegion = new DirtyRegion();
+
+    /**
+     * Suivi des zones à redessiner.
+     * Lorsqu'il est inactif, tout l'écran est redessiné à chaque image.
+     */
+    private volatile boolean dirtyTracking = false;
+
+    /**
+     * Nombre de pixels à redessiner pour l'image en cours.
+     */
+    private volatile long framePixels = 0;
+
+    /**
+     * Nombre de pixels redessinés lors de la dernière image affichée.
+     */
+    private volatile long redrawnPixels = 0;
+
+    /**
+     * Nombre de buffers demandé.
+     */
+    private volatile int bufferCount = DEFAULT_BUFFER_COUNT;
+
+    /**
+     * Préférence pour le page flipping plutôt que le blitting.
+     */
+    private volatile boolean pageFlipping = true;
+
+    /**
+     * Adaptation du nombre de buffers suivant les temps d'affichage.
+     */
+    private volatile boolean adaptiveBuffering = false;
+
+    /**
+     * Nombre de buffers ajoutés par l'adaptation, seuls à pouvoir être retirés.
+     */
+    private volatile int adaptiveBuffers = 0;
+
+    /**
+     * Mesure des temps de rendu de la fenêtre d'adaptation en cours.
+     * Distincte de {@link #frameTimes} afin de ne pas en effacer les mesures.
+     * Uniquement utilisé par le processus de rendu.
+     */
+    private final FrameTimeRecorder adaptiveWindow = new FrameTimeRecorder(ADAPTIVE_SAMPLE_FRAMES);
+
+    /**
+     * Nombre de fenêtres de mesure consécutives manquant leur échéance.
+     * Uniquement utilisé par le processus de rendu.
+     */
+    private int missedWindows = 0;
+
+    /**
+     * Nombre de fenêtres de mesure consécutives largement dans leur échéance.
+     * Uniquement utilisé par le processus de rendu.
+     */
+    private int relaxedWindows = 0;
+
+    /**
+     * Création des buffers en attente sur l'EDT.
+     * Les demandes reçues avant son exécution sont regroupées.
+     */
+    private final AtomicReference<CompletableFuture<Void>> pendingStrategy = new AtomicReference<>();
+
+    /**
+     * Création des buffers en cours sur l'EDT (<code>null</code> si aucune).
+     */
+    private volatile CompletableFuture<Void> runningStrategy = null;
+
+    /**
+     * Surface de rendu hors écran.
+     * Lorsqu'elle est définie, elle remplace le composant et le plein écran.
+     */
+    private volatile OffscreenSurface offscreen = null;
+
+    /**
+     * Liste des écouteurs des images rendues hors écran.
+     */
+    private final CopyOnWriteArrayList<FrameListener> frameListeners = new CopyOnWriteArrayList<>();
+
     protected ScreenManager() {
         // NE RIEN FAIRE
     }
@@ -94,15 +285,236 @@ public class ScreenManager implements EntityProcess {
      * @return
      */
     private static GraphicsDevice[] getDevices() {
-        GraphicsDevice[] devices;
+        GraphicsDevice[] list = devices;
+
+        if (list == null) {
+            synchronized (DEVICE_LISTENERS) {
+                list = devices;
+
+                if (list == null) {
+                    list = loadDevices();
+                    devices = list;
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Interroge le système sur la liste des écrans disponibles.
+     * En mode sans affichage (headless), retourne une liste vide.
+     *
+     * @return
+     */
+    private static GraphicsDevice[] loadDevices() {
+        GraphicsDevice[] list;
 
         try {
-            devices = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
+            list = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
         } catch (HeadlessException e) {
-            devices = new GraphicsDevice[1];
-            devices[0] = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+            try {
+                list = new GraphicsDevice[1];
+                list[0] = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+            } catch (HeadlessException ex) {
+                list = new GraphicsDevice[0];
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Retourne une copie de la liste des écrans disponibles.
+     *
+     * @return
+     */
+    public static GraphicsDevice[] getScreenDevices() {
+        return getDevices().clone();
+    }
+
+    /**
+     * Recharge la liste des écrans disponibles.
+     * A appeler lors du branchement ou du débranchement d'un écran, ou d'un changement d'affichage
+     * (effectué périodiquement tant qu'un écouteur est enregistré, si la vérification est activée).
+     * Les écouteurs sont notifiés uniquement si la liste a changé.
+     * Le premier chargement de la liste n'est pas signalé.
+     * <p>
+     * Si la liste est inchangée, l'index de la géométrie des écrans est vérifié
+     * (mode d'affichage, dimensions et marges de chaque écran) et invalidé s'il ne correspond plus à l'affichage.
+     */
+    public static void refreshDevices() {
+        GraphicsDevice[] list = loadDevices();
+        boolean changed;
+        GraphicsDevice[] current = null;
+
+        synchronized (DEVICE_LISTENERS) {
+            if (devices == null) {
+                // Liste pas encore chargée: référence initiale, sans changement à signaler
+                devices = list;
+                changed = false;
+            } else {
+                changed = !Arrays.equals(devices, list);
+
+                if (changed) {
+                    devices = list;
+                    invalidateScreenGeometry();
+                } else {
+                    current = devices;
+                }
+            }
+        }
+
+        if (current != null) {
+            // Même liste d'écrans : vérification de la résolution, de la disposition et des marges
+            ScreenGeometry geometry = SCREEN_GEOMETRY.get();
+
+            if (geometry != null && !geometry.isCurrent(current)) {
+                LoggerManager.getInstance().addDebug("Screen geometry changed.");
+                invalidateScreenGeometry();
+            }
+        }
+
+        if (changed) {
+            LoggerManager.getInstance().addDebug("Screen devices changed (" + list.length + " screen(s)).");
+
+            for (ScreenDeviceListener listener : DEVICE_LISTENERS) {
+                listener.devicesChanged(list.clone());
+            }
+        }
+    }
+
+    /**
+     * Ajoute un écouteur du changement d'écran.
+     *
+     * @param listener
+     */
+    public static void addScreenDeviceListener(ScreenDeviceListener listener) {
+        if (listener != null) {
+            synchronized (DEVICE_LISTENERS) {
+                // La liste courante sert de référence pour détecter le prochain changement
+                getDevices();
+                DEVICE_LISTENERS.addIfAbsent(listener);
+                updateDevicePolling();
+            }
+        }
+    }
+
+    /**
+     * Supprime un écouteur du changement d'écran.
+     *
+     * @param listener
+     */
+    public static void removeScreenDeviceListener(ScreenDeviceListener listener) {
+        synchronized (DEVICE_LISTENERS) {
+            DEVICE_LISTENERS.remove(listener);
+            updateDevicePolling();
+        }
+    }
+
+    /**
+     * Retourne l'intervalle de la vérification de la liste des écrans (en millisecondes).
+     *
+     * @return
+     */
+    public static long getDevicePollingInterval() {
+        synchronized (DEVICE_LISTENERS) {
+            return devicePollingInterval;
+        }
+    }
+
+    /**
+     * Change l'intervalle de la vérification de la liste des écrans (en millisecondes).
+     * AWT ne signale pas publiquement le branchement d'un écran: tant qu'un écouteur est enregistré,
+     * la liste est rechargée périodiquement via {@link #refreshDevices()}.
+     * La vérification est désactivée par défaut (voir {@link #DEFAULT_DEVICE_POLLING_INTERVAL} pour l'activer).
+     * Une valeur négative ou nulle désactive la vérification.
+     *
+     * @param interval
+     */
+    public static void setDevicePollingInterval(long interval) {
+        synchronized (DEVICE_LISTENERS) {
+            devicePollingInterval = interval;
+
+            if (devicePolling != null) {
+                devicePolling.cancel(false);
+                devicePolling = null;
+            }
+
+            updateDevicePolling();
+        }
+    }
+
+    /**
+     * Démarre ou arrête la vérification périodique de la liste des écrans.
+     * A appeler avec le verrou de la liste des écouteurs.
+     */
+    private static void updateDevicePolling() {
+        if (DEVICE_LISTENERS.isEmpty() || devicePollingInterval <= 0) {
+            if (devicePolling != null) {
+                devicePolling.cancel(false);
+                devicePolling = null;
+            }
+        } else if (devicePolling == null) {
+            devicePolling = DEVICE_SCHEDULER.scheduleWithFixedDelay(() -> {
+                try {
+                    refreshDevices();
+                } catch (RuntimeException ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
+            }, devicePollingInterval, devicePollingInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Retourne l'écran en cours.
+     * Si le numéro de l'écran n'est plus valide (écran débranché), le premier écran est sélectionné.
+     * A appeler avec le verrou de la stratégie.
+     *
+     * @return GraphicsDevice or <code>null</code>.
+     */
+    private GraphicsDevice getCurrentDevice() {
+        GraphicsDevice[] list = getDevices();
+
+        if (deviceNumber >= list.length) {
+            deviceNumber = 0;
+        }
+        return list.length > 0 ? list[deviceNumber] : null;
+    }
+
+    /**
+     * Création du planificateur de la détection du changement d'écran.
+     *
+     * @return
+     */
+    private static ScheduledThreadPoolExecutor createDeviceScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, (Runnable r) -> {
+            Thread thread = new Thread(r, "ScreenDeviceStrategy");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Retourne le délai avant la détection du changement d'écran (en millisecondes).
+     *
+     * @return
+     */
+    public long getDeviceDebounceDelay() {
+        return deviceDebounceDelay;
+    }
+
+    /**
+     * Change le délai avant la détection du changement d'écran (en millisecondes).
+     * Les déplacements et redimensionnements successifs de la fenêtre pendant ce délai sont regroupés.
+     *
+     * @param deviceDebounceDelay
+     */
+    public void setDeviceDebounceDelay(long deviceDebounceDelay) {
+        if (deviceDebounceDelay >= 0) {
+            this.deviceDebounceDelay = deviceDebounceDelay;
         }
-        return devices;
     }
 
     /**
@@ -114,10 +526,14 @@ public class ScreenManager implements EntityProcess {
         GraphicsConfiguration configuration = null;
 
         synchronized (strategy) {
-            GraphicsConfiguration[] configurations = DEVICES[deviceNumber].getConfigurations();
+            GraphicsDevice device = getCurrentDevice();
+
+            if (device != null) {
+                GraphicsConfiguration[] configurations = device.getConfigurations();
 
-            if (configurations != null && configurations.length > 0) {
-                configuration = configurations[0];
+                if (configurations != null && configurations.length > 0) {
+                    configuration = configurations[0];
+                }
             }
         }
         return configuration;
@@ -130,18 +546,20 @@ public class ScreenManager implements EntityProcess {
      */
     public DisplayMode[] getCompatibleDisplayModes() {
         synchronized (strategy) {
-            return DEVICES[deviceNumber].getDisplayModes();
+            GraphicsDevice device = getCurrentDevice();
+            return device != null ? device.getDisplayModes() : new DisplayMode[0];
         }
     }
 
     /**
      * Retourne le mode d'affichage courant.
      *
-     * @return
+     * @return DisplayMode or <code>null</code>.
      */
     public DisplayMode getCurrentDisplayMode() {
         synchronized (strategy) {
-            return DEVICES[deviceNumber].getDisplayMode();
+            GraphicsDevice device = getCurrentDevice();
+            return device != null ? device.getDisplayMode() : null;
         }
     }
 
@@ -158,23 +576,10 @@ public class ScreenManager implements EntityProcess {
             if (w != null) {
                 // Ne surtout pas mettre à jour le numéro de l'écran si la fenêtre n'est pas visible
                 if (w.isVisible()) {
-                    int index = 0;
-                    Point start = w.getLocation();
-
-                    for (GraphicsDevice device : DEVICES) {
-                        GraphicsConfiguration[] configurations = device.getConfigurations();
-
-                        if (configurations != null && configurations.length > 0) {
-                            if (configurations[0].getBounds().contains(start)) {
-                                break;
-                            }
-                        }
-
-                        index++;
-                    }
+                    int index = getScreenGeometry().indexOf(w.getX(), w.getY());
 
                     synchronized (strategy) {
-                        if (index != deviceNumber) {
+                        if (index >= 0 && index != deviceNumber) {
                             LoggerManager.getInstance().addDebug("Updating device number to screen " + index + ".");
                             deviceNumber = index;
                         }
@@ -190,30 +595,63 @@ public class ScreenManager implements EntityProcess {
      * @return
      */
     public static Rectangle getMaximumBounds() {
-        Rectangle rslt = new Rectangle();
-
-        for (GraphicsDevice device : DEVICES) {
-            for (GraphicsConfiguration configuration : device.getConfigurations()) {
-                Rectangle.union(rslt, configuration.getBounds(), rslt);
-            }
-        }
-        return rslt;
+        return getScreenGeometry().getMaximumBounds();
     }
 
     /**
      * Retourne les dimensions de l'écran en focus.
+     * Sans écran disponible, retourne un rectangle vide.
      *
      * @return
      */
     public Rectangle getCurrentBounds() {
-        Rectangle rslt = new Rectangle();
+        Rectangle bounds = new Rectangle();
 
         synchronized (strategy) {
-            for (GraphicsConfiguration configuration : DEVICES[deviceNumber].getConfigurations()) {
-                Rectangle.union(rslt, configuration.getBounds(), rslt);
+            // Vérifie le numéro de l'écran (écran débranché, mode sans affichage)
+            if (getCurrentDevice() != null) {
+                ScreenGeometry geometry = getScreenGeometry();
+
+                if (deviceNumber < geometry.getDeviceCount()) {
+                    bounds = geometry.getBounds(deviceNumber);
+                }
             }
         }
-        return rslt;
+        return bounds;
+    }
+
+    /**
+     * Retourne l'index de la géométrie des écrans.
+     * L'index est conservé jusqu'à son invalidation, puis recalculé à la demande suivante :
+     * la lecture ne compare que la génération de l'index, sans interroger le système.
+     * <p>
+     * L'index est invalidé par le passage en plein écran ou son abandon (changement de mode d'affichage),
+     * et par {@link #refreshDevices()} (appelé périodiquement si la vérification est activée, voir {@link #setDevicePollingInterval(long)})
+     * lorsque la liste des écrans, leur résolution, leur disposition ou leurs marges ont changé.
+     *
+     * @return
+     */
+    public static ScreenGeometry getScreenGeometry() {
+        ScreenGeometry previous = SCREEN_GEOMETRY.get();
+        long generation = SCREEN_GEOMETRY_GENERATION.get();
+        ScreenGeometry geometry = previous;
+
+        if (geometry == null || geometry.getGeneration() != generation) {
+            geometry = ScreenGeometry.create(getDevices(), generation);
+
+            // Un index calculé avant une invalidation garde son ancienne génération et sera ignoré
+            SCREEN_GEOMETRY.compareAndSet(previous, geometry);
+        }
+        return geometry;
+    }
+
+    /**
+     * Invalide l'index de la géométrie des écrans.
+     * A appeler lors d'un changement d'affichage (résolution, disposition des écrans...).
+     */
+    public static void invalidateScreenGeometry() {
+        SCREEN_GEOMETRY_GENERATION.incrementAndGet();
+        SCREEN_GEOMETRY.set(null);
     }
 
     /**
@@ -235,7 +673,8 @@ public class ScreenManager implements EntityProcess {
 
 display:for (DisplayMode mode : modes) {
             // Si le mode correspond a celui utilisé
-            if (displayModesMatch(mode, currentMode)) {
+            if (currentMode != null
+                && displayModesMatch(mode, currentMode)) {
                 compatibleMode = mode;
                 break;
             }
@@ -306,6 +745,7 @@ display:for (DisplayMode mode : modes) {
      * l'affichage en plein écran se fera avec les paramétres courant.
      * <p>
      * Une tentative d'augmentation du buffer est aussi executée.
+     * Les buffers sont créés sur l'EDT sans bloquer l'appelant (voir {@link #getPendingBufferStrategy()}).
      *
      * @param displayMode
      * @param w
@@ -333,29 +773,35 @@ display:for (DisplayMode mode : modes) {
             w.setVisible(true);
 
             synchronized (strategy) {
-                // Tentative de mise en plein écran
-                DEVICES[deviceNumber].setFullScreenWindow(w);
-
-                // Si il est possible de changer le mode d'affichage
-                if (displayMode != null
-                    && DEVICES[deviceNumber].isDisplayChangeSupported()) {
-                    success = true;
-
-                    try {
-                        DEVICES[deviceNumber].setDisplayMode(displayMode);
-                    } catch (IllegalArgumentException ex) {
-                        success = false;
+                GraphicsDevice device = getCurrentDevice();
+
+                if (device != null) {
+                    // Tentative de mise en plein écran
+                    device.setFullScreenWindow(w);
+
+                    // Si il est possible de changer le mode d'affichage
+                    if (displayMode != null
+                        && device.isDisplayChangeSupported()) {
+                        success = true;
+
+                        try {
+                            device.setDisplayMode(displayMode);
+                        } catch (IllegalArgumentException ex) {
+                            success = false;
+                        }
+
+                        // Correction d'un problème de taille sur Mac OS X
+                        w.setSize(displayMode.getWidth(), displayMode.getHeight());
                     }
 
-                    // Correction d'un problème de taille sur Mac OS X
-                    w.setSize(displayMode.getWidth(), displayMode.getHeight());
+                    // Vérification du support de plein écran
+                    // Note: Si Linux, il est possible que isFullScreenSupported() retourne "false", même si le plein écran fonctionne
+                    fullScreenWindow = device.isFullScreenSupported() && success;
                 }
-
-                // Vérification du support de plein écran
-                // Note: Si Linux, il est possible que isFullScreenSupported() retourne "false", même si le plein écran fonctionne
-                fullScreenWindow = DEVICES[deviceNumber].isFullScreenSupported() && success;
             }
 
+            invalidateScreenGeometry();
+
             fireHardwareStrategy();
         }
 
@@ -376,7 +822,8 @@ display:for (DisplayMode mode : modes) {
 
         if (fullScreenWindow) {
             synchronized (strategy) {
-                w = DEVICES[deviceNumber].getFullScreenWindow();
+                GraphicsDevice device = getCurrentDevice();
+                w = device != null ? device.getFullScreenWindow() : null;
             }
         } else {
             w = getWindow(component);
@@ -395,29 +842,26 @@ display:for (DisplayMode mode : modes) {
 
     /**
      * Affecte le composant fenêtrée de l'écran.
+     * Les buffers sont créés sur l'EDT sans bloquer l'appelant (voir {@link #getPendingBufferStrategy()}).
      *
      * @param component
      */
     public void setComponent(Canvas component) {
         if (component != null
             && this.component != component) {
-            // Gestion du multi-écran
-            if (DEVICES.length > 1) {
-                // Nettoyage de l'ancien composant
-                Window w = getWindow(this.component);
-
-                if (w != null) {
-                    if (strategy != null) {
-                        w.removeComponentListener(strategy);
-                    }
-                }
+            // Gestion du multi-écran (un écran peut être branché à tout moment)
+            // Nettoyage de l'ancien composant
+            Window w = getWindow(this.component);
 
-                // Integration du nouveau composant
-                w = getWindow(component);
+            if (w != null) {
+                w.removeComponentListener(strategy);
+            }
 
-                if (w != null) {
-                    w.addComponentListener(strategy);
-                }
+            // Integration du nouveau composant
+            w = getWindow(component);
+
+            if (w != null) {
+                w.addComponentListener(strategy);
             }
 
             this.component = component;
@@ -480,7 +924,7 @@ display:for (DisplayMode mode : modes) {
                     }
                 }
             }
-        } else {
+        } else if (component != null) {
             c = component.getParent();
         }
         return c;
@@ -488,24 +932,15 @@ display:for (DisplayMode mode : modes) {
 
     /**
      * Retourne une capture d'écran de la zone actuellement gérée.
+     * Le robot de capture de l'écran est réutilisé d'un appel à l'autre;
+     * pour des captures répétées, préférer {@link ScreenCaptureService}.
      * En cas d'erreur, retourne
      * <code>null</code>.
      *
      * @return
      */
     public Image snapshots() {
-        Image image = null;
-        Container zone = getComponent();
-
-        if (zone != null) {
-            try {
-                Robot robot = new Robot();
-                image = robot.createScreenCapture(new Rectangle(zone.getX(), zone.getY(), zone.getWidth(), zone.getHeight()));
-            } catch (AWTException e) {
-                LoggerManager.getInstance().addError(e);
-            }
-        }
-        return image;
+        return ScreenCaptureService.capture(this, null);
     }
 
     /**
@@ -520,59 +955,449 @@ display:for (DisplayMode mode : modes) {
      */
     public Graphics2D getGraphics() {
         Graphics2D g = null;
-        BufferStrategy bStrategy = null;
+        OffscreenSurface surface = offscreen;
+        long startTime = System.nanoTime();
 
-        if (fullScreenWindow) {
-            // Si on est en plein écran, nous récupèrons la frame
-            Window w = getCurrentWindow();
+        if (surface != null) {
+            // Rendu en mémoire: avec plusieurs images, l'image à dessiner ne contient pas la précédente
+            g = surface.getBackImage().createGraphics();
+            framePixels = clipDirtyRegion(surface.getBufferCount() == 1, g);
+        } else {
+            BufferStrategy bStrategy = isBufferStrategyPending() ? null : getBufferStrategy();
+
+            // Si le buffer est prêt, nous utilisons AWT pour le rafraichissement hardware
+            // Pendant la création des buffers, l'image est ignorée plutôt que bloquée
+            if (bStrategy != null) {
+                try {
+                    g = (Graphics2D) bStrategy.getDrawGraphics();
+                } catch (Exception ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
 
-            if (w != null) {
-                bStrategy = w.getBufferStrategy();
+                if (g != null) {
+                    BufferCapabilities capabilities = bStrategy.getCapabilities();
+
+                    // Avec le page flipping, le buffer d'arrière-plan ne contient pas forcément l'image précédente
+                    framePixels = clipDirtyRegion(!capabilities.isPageFlipping()
+                                                  || capabilities.getFlipContents() == BufferCapabilities.FlipContents.COPIED, g);
+                }
             }
-        } else if (component != null) {
-            bStrategy = component.getBufferStrategy();
         }
 
-        // Si le buffer est prêt, nous utilisons AWT pour le rafraichissement hardware
-        if (bStrategy != null) {
-            try {
-                g = (Graphics2D) bStrategy.getDrawGraphics();
-            } catch (Exception ex) {
-                LoggerManager.getInstance().addError(ex);
-            }
+        if (g != null) {
+            drawStartTime = System.nanoTime();
+            graphicsTime = drawStartTime - startTime;
         }
         return g;
     }
 
+    /**
+     * Limite les graphismes aux zones à redessiner, puis vide les zones.
+     * Sans suivi des zones, tout l'écran est à redessiner.
+     *
+     * @param preserved Le buffer à dessiner contient l'image précédente.
+     * @param g
+     * @return Le nombre de pixels à redessiner.
+     */
+    private long clipDirtyRegion(boolean preserved, Graphics2D g) {
+        int width = getWidth();
+        int height = getHeight();
+        long pixels;
+
+        if (dirtyTracking) {
+            synchronized (dirtyRegion) {
+                if (!preserved) {
+                    dirtyRegion.addAll();
+                }
+
+                pixels = dirtyRegion.getArea(width, height);
+
+                if (!dirtyRegion.isFull()) {
+                    g.clip(dirtyRegion.getClip(width, height));
+                }
+
+                dirtyRegion.clear();
+            }
+        } else {
+            pixels = (long) width * height;
+        }
+        return pixels;
+    }
+
+    /**
+     * Marque une zone de l'écran à redessiner.
+     * Sans effet si le suivi des zones est inactif.
+     *
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     */
+    public void markDirty(int x, int y, int width, int height) {
+        if (dirtyTracking) {
+            dirtyRegion.add(x, y, width, height);
+        }
+    }
+
+    /**
+     * Marque une zone de l'écran à redessiner.
+     * Sans effet si le suivi des zones est inactif.
+     *
+     * @param region
+     */
+    public void markDirty(Rectangle region) {
+        if (dirtyTracking) {
+            dirtyRegion.add(region);
+        }
+    }
+
+    /**
+     * Marque tout l'écran à redessiner.
+     * Sans effet si le suivi des zones est inactif.
+     */
+    public void markAllDirty() {
+        if (dirtyTracking) {
+            dirtyRegion.addAll();
+        }
+    }
+
+    /**
+     * Vérifie si une image doit être dessinée.
+     * Toujours vrai lorsque le suivi des zones est inactif.
+     *
+     * @return
+     */
+    public boolean isDirty() {
+        return !dirtyTracking || !dirtyRegion.isEmpty();
+    }
+
+    /**
+     * Retourne les zones de l'écran à redessiner.
+     *
+     * @return
+     */
+    public java.util.List<Rectangle> getDirtyRegions() {
+        return dirtyRegion.getRegions(getWidth(), getHeight());
+    }
+
+    /**
+     * Vérifie si le suivi des zones à redessiner est actif.
+     *
+     * @return
+     */
+    public boolean isDirtyTracking() {
+        return dirtyTracking;
+    }
+
+    /**
+     * Active ou désactive le suivi des zones à redessiner.
+     * Lorsqu'il est actif, les graphismes sont limités aux zones marquées
+     * et une image sans zone marquée n'est pas affichée.
+     *
+     * @param dirtyTracking
+     */
+    public void setDirtyTracking(boolean dirtyTracking) {
+        this.dirtyTracking = dirtyTracking;
+
+        if (dirtyTracking) {
+            dirtyRegion.addAll();
+        } else {
+            dirtyRegion.clear();
+        }
+    }
+
+    /**
+     * Retourne le nombre de pixels redessinés lors de la dernière image affichée.
+     *
+     * @return
+     */
+    public long getRedrawnPixels() {
+        return redrawnPixels;
+    }
+
     /**
      * Provoque une mise à jour de l'écran.
      */
     public void update() {
-        BufferStrategy bStrategy = null;
+        // Sans zone redessinée, l'écran est déjà à jour
+        if (!dirtyTracking || framePixels > 0) {
+            present();
+        }
 
-        if (fullScreenWindow) {
-            Window w = getCurrentWindow();
+        graphicsTime = 0;
+        drawStartTime = 0;
+        framePixels = 0;
+    }
 
-            if (w != null) {
-                bStrategy = w.getBufferStrategy();
+    /**
+     * Affiche l'image en cours.
+     */
+    private void present() {
+        OffscreenSurface surface = offscreen;
+
+        if (surface != null) {
+            presentOffscreen(surface);
+        } else if (!isBufferStrategyPending()) {
+            // Les buffers en cours de création ne peuvent pas être affichés
+            presentScreen();
+        }
+    }
+
+    /**
+     * Termine l'image rendue hors écran et la transmet aux écouteurs.
+     *
+     * @param surface
+     */
+    private void presentOffscreen(OffscreenSurface surface) {
+        long showTime = System.nanoTime();
+        long drawTime = drawStartTime > 0 ? showTime - drawStartTime : 0;
+
+        BufferedImage frame = surface.swap();
+        redrawnPixels = framePixels;
+
+        for (FrameListener listener : frameListeners) {
+            try {
+                listener.frameRendered(frame, surface.getFrameNumber());
+            } catch (Exception ex) {
+                LoggerManager.getInstance().addError(ex);
             }
-        } else if (component != null) {
-            bStrategy = component.getBufferStrategy();
         }
 
+        frameTimes.record(graphicsTime, drawTime, System.nanoTime() - showTime, 0, true);
+    }
+
+    /**
+     * Affiche l'image en cours à l'écran.
+     */
+    private void presentScreen() {
+        BufferStrategy bStrategy = getBufferStrategy();
+        long showTime = System.nanoTime();
+        long drawTime = drawStartTime > 0 ? showTime - drawStartTime : 0;
+        boolean shown = false;
+
         // Si le buffer n'a pas été perdu
         if (bStrategy != null
             && !bStrategy.contentsLost()) {
-            // On lit le buffer suivant ou on change le pointeur de l'affichage
-            // Méthode de blitting ou de flipping
-            // Envoie toutes les données du buffer mémoire vers le buffer d'affichage
-            bStrategy.show();
+            try {
+                // On lit le buffer suivant ou on change le pointeur de l'affichage
+                // Méthode de blitting ou de flipping
+                // Envoie toutes les données du buffer mémoire vers le buffer d'affichage
+                bStrategy.show();
+                shown = true;
+                redrawnPixels = framePixels;
+            } catch (IllegalStateException ex) {
+                // Buffers détruits entre temps (composant retiré ou buffers recréés)
+                LoggerManager.getInstance().addDebug("Unable to show the buffer: " + ex.getMessage());
+                markAllDirty();
+            }
         }
 
+        long syncTime = System.nanoTime();
+
         // Synchronisation de l'écran vers le système.
         // Cette méthode s'assure que l'écran est a jour.
         // Elle corrige également un problème sous Linux (event queue)
         Toolkit.getDefaultToolkit().sync();
+
+        long endTime = System.nanoTime();
+
+        if (bStrategy != null) {
+            frameTimes.record(graphicsTime, drawTime, syncTime - showTime, endTime - syncTime, shown);
+
+            if (adaptiveBuffering) {
+                adaptiveWindow.setFrameBudget(frameTimes.getFrameBudget());
+                adaptiveWindow.record(graphicsTime, drawTime, syncTime - showTime, endTime - syncTime, shown);
+                adaptBufferCount();
+            }
+        }
+    }
+
+    /**
+     * Passe au triple-buffering lorsque les images manquent leur échéance, et revient au double-buffering ensuite.
+     * Avec deux buffers, {@link BufferStrategy#show()} attend la synchronisation verticale:
+     * un buffer supplémentaire permet de dessiner l'image suivante pendant cette attente, au prix d'une image de latence.
+     * Le temps d'affichage seul ne suffit pas: une attente courte dans le délai de l'image est normale.
+     * <p>
+     * Les mesures sont évaluées par fenêtre de {@value #ADAPTIVE_SAMPLE_FRAMES} images.
+     * Un buffer est ajouté après {@value #ADAPTIVE_MISSED_WINDOWS} fenêtres consécutives hors délai,
+     * puis retiré après {@value #ADAPTIVE_RELAXED_WINDOWS} fenêtres consécutives largement dans le délai.
+     */
+    private void adaptBufferCount() {
+        long frames = adaptiveWindow.getFrameCount();
+
+        if (frames >= ADAPTIVE_SAMPLE_FRAMES) {
+            long budget = adaptiveWindow.getFrameBudget();
+            long p95 = adaptiveWindow.getPercentile(FrameTimeRecorder.Phase.FRAME, 95);
+            long dropped = adaptiveWindow.getDroppedFrames();
+
+            if (p95 > budget || dropped > frames * ADAPTIVE_DROPPED_RATIO) {
+                missedWindows++;
+                relaxedWindows = 0;
+            } else if (p95 < budget * ADAPTIVE_RELAXED_RATIO && dropped == 0) {
+                relaxedWindows++;
+                missedWindows = 0;
+            } else {
+                missedWindows = 0;
+                relaxedWindows = 0;
+            }
+
+            int count = bufferCount;
+
+            if (missedWindows >= ADAPTIVE_MISSED_WINDOWS && count < MAXIMUM_BUFFER_COUNT) {
+                count++;
+                adaptiveBuffers++;
+
+                LoggerManager.getInstance().addDebug("Frames miss their deadline, switching to " + count + " buffers.");
+            } else if (relaxedWindows >= ADAPTIVE_RELAXED_WINDOWS && adaptiveBuffers > 0) {
+                count--;
+                adaptiveBuffers--;
+
+                LoggerManager.getInstance().addDebug("Frames meet their deadline, switching back to " + count + " buffers.");
+            }
+
+            // Nouvelle fenêtre de mesure
+            adaptiveWindow.reset();
+
+            if (count != bufferCount) {
+                bufferCount = count;
+                missedWindows = 0;
+                relaxedWindows = 0;
+                fireHardwareStrategy();
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre de buffers demandé.
+     *
+     * @return
+     */
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
+    /**
+     * Change le nombre de buffers (2 pour le double-buffering, 3 pour le triple-buffering, limité à ces valeurs).
+     * Appliqué à la prochaine création des buffers.
+     *
+     * @param bufferCount
+     */
+    public void setBufferCount(int bufferCount) {
+        this.bufferCount = Math.max(DEFAULT_BUFFER_COUNT, Math.min(MAXIMUM_BUFFER_COUNT, bufferCount));
+        adaptiveBuffers = 0;
+    }
+
+    /**
+     * Vérifie la préférence pour le page flipping.
+     *
+     * @return
+     */
+    public boolean isPageFlipping() {
+        return pageFlipping;
+    }
+
+    /**
+     * Change la préférence pour le page flipping (sinon, blitting).
+     * Appliqué à la prochaine création des buffers.
+     *
+     * @param pageFlipping
+     */
+    public void setPageFlipping(boolean pageFlipping) {
+        this.pageFlipping = pageFlipping;
+    }
+
+    /**
+     * Vérifie si le nombre de buffers est adapté suivant les échéances manquées.
+     *
+     * @return
+     */
+    public boolean isAdaptiveBuffering() {
+        return adaptiveBuffering;
+    }
+
+    /**
+     * Active ou désactive l'adaptation du nombre de buffers.
+     * Lorsqu'elle est active, le triple-buffering est utilisé si les images dépassent durablement leur délai
+     * (95e centile de la durée d'une image) ou si plus de 5% des images sont perdues,
+     * puis abandonné lorsque les images restent durablement sous la moitié de leur délai.
+     * Le nombre de buffers choisi via {@link #setBufferCount(int)} n'est jamais réduit.
+     *
+     * @param adaptiveBuffering
+     */
+    public void setAdaptiveBuffering(boolean adaptiveBuffering) {
+        this.adaptiveBuffering = adaptiveBuffering;
+    }
+
+    /**
+     * Retourne les capacités des buffers actuellement utilisés.
+     *
+     * @return BufferCapabilities or <code>null</code>.
+     */
+    public BufferCapabilities getBufferCapabilities() {
+        BufferStrategy bStrategy = getBufferStrategy();
+        return bStrategy != null ? bStrategy.getCapabilities() : null;
+    }
+
+    /**
+     * Retourne les mesures des temps de rendu.
+     *
+     * @return
+     */
+    public FrameTimeRecorder getFrameTimeRecorder() {
+        return frameTimes;
+    }
+
+    /**
+     * Vérifie si le contenu du buffer a été restauré depuis le dernier appel à {@link #getGraphics()}.
+     * Dans ce cas, le rendu de l'image courante doit être recommencé.
+     *
+     * @return
+     */
+    public boolean contentsRestored() {
+        BufferStrategy bStrategy = getBufferStrategy();
+        boolean restored = bStrategy != null && bStrategy.contentsRestored();
+
+        if (restored) {
+            markAllDirty();
+        }
+        return restored;
+    }
+
+    /**
+     * Vérifie si le contenu du buffer a été perdu depuis le dernier appel à {@link #getGraphics()}.
+     * Dans ce cas, l'image courante n'a pas été affichée et doit être entièrement redessinée.
+     *
+     * @return
+     */
+    public boolean contentsLost() {
+        BufferStrategy bStrategy = getBufferStrategy();
+        boolean lost = bStrategy != null && bStrategy.contentsLost();
+
+        if (lost) {
+            markAllDirty();
+        }
+        return lost;
+    }
+
+    /**
+     * Retourne la stratégie de buffer suivant le contexte de l'écran.
+     *
+     * @return BufferStrategy or <code>null</code>.
+     */
+    private BufferStrategy getBufferStrategy() {
+        BufferStrategy bStrategy = null;
+
+        if (fullScreenWindow) {
+            // Si on est en plein écran, nous récupèrons la frame
+            Window w = getCurrentWindow();
+
+            if (w != null) {
+                bStrategy = w.getBufferStrategy();
+            }
+        } else if (component != null) {
+            bStrategy = component.getBufferStrategy();
+        }
+        return bStrategy;
     }
 
     /**
@@ -582,9 +1407,13 @@ display:for (DisplayMode mode : modes) {
      */
     public int getWidth() {
         int width = 0;
+        OffscreenSurface surface = offscreen;
 
-        // Si on est en plein écran
-        if (fullScreenWindow) {
+        if (surface != null) {
+            // Rendu hors écran
+            width = surface.getWidth();
+        } else if (fullScreenWindow) {
+            // Si on est en plein écran
             // On récupère la frame
             Window w = getCurrentWindow();
 
@@ -607,9 +1436,13 @@ display:for (DisplayMode mode : modes) {
      */
     public int getHeight() {
         int height = 0;
+        OffscreenSurface surface = offscreen;
 
-        // Si on est en plein écran
-        if (fullScreenWindow) {
+        if (surface != null) {
+            // Rendu hors écran
+            height = surface.getHeight();
+        } else if (fullScreenWindow) {
+            // Si on est en plein écran
             // On récupère la frame
             Window w = getCurrentWindow();
 
@@ -627,6 +1460,7 @@ display:for (DisplayMode mode : modes) {
 
     /**
      * Restaure l'écran si besoin.
+     * Les buffers sont créés sur l'EDT sans bloquer l'appelant (voir {@link #getPendingBufferStrategy()}).
      */
     public void restoreScreen() {
         boolean success = false;
@@ -641,9 +1475,15 @@ display:for (DisplayMode mode : modes) {
                 w.dispose();
 
                 synchronized (strategy) {
-                    DEVICES[deviceNumber].setFullScreenWindow(null);
+                    GraphicsDevice device = getCurrentDevice();
+
+                    if (device != null) {
+                        device.setFullScreenWindow(null);
+                    }
                 }
 
+                invalidateScreenGeometry();
+
                 if (w instanceof Frame frame) {
                     frame.setUndecorated(false);
                 }
@@ -658,8 +1498,6 @@ display:for (DisplayMode mode : modes) {
                 w.setVisible(true);
                 w.repaint();
 
-                fireHardwareStrategy();
-
                 success = true;
             }
 
@@ -675,14 +1513,208 @@ display:for (DisplayMode mode : modes) {
         }
     }
 
+    /**
+     * Active le rendu hors écran avec le nombre d'images par défaut ({@link OffscreenSurface#DEFAULT_BUFFER_COUNT}).
+     *
+     * @param width
+     * @param height
+     */
+    public void setOffscreen(int width, int height) {
+        setOffscreen(width, height, OffscreenSurface.DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * Active le rendu hors écran dans une série d'images utilisées à tour de rôle.
+     * Les graphismes et les dimensions sont alors ceux de la surface en mémoire, sans affichage.
+     * Avec une seule image, les zones à redessiner sont conservées d'une image à l'autre,
+     * mais l'image terminée est redessinée pendant sa lecture (voir {@link OffscreenSurface}).
+     *
+     * @param width
+     * @param height
+     * @param bufferCount Nombre d'images de la série.
+     */
+    public void setOffscreen(int width, int height, int bufferCount) {
+        offscreen = new OffscreenSurface(width, height, bufferCount);
+        markAllDirty();
+
+        LoggerManager.getInstance().addDebug("Switching to offscreen rendering (" + width + "*" + height + ").");
+    }
+
+    /**
+     * Désactive le rendu hors écran.
+     */
+    public void removeOffscreen() {
+        if (offscreen != null) {
+            offscreen = null;
+            markAllDirty();
+        }
+    }
+
+    /**
+     * Vérifie si le rendu est effectué hors écran.
+     *
+     * @return
+     */
+    public boolean isOffscreen() {
+        return offscreen != null;
+    }
+
+    /**
+     * Retourne la dernière image rendue hors écran.
+     * L'image est réutilisée par les images suivantes (voir {@link OffscreenSurface}).
+     *
+     * @return BufferedImage or <code>null</code>.
+     */
+    public BufferedImage getOffscreenFrame() {
+        OffscreenSurface surface = offscreen;
+        return surface != null ? surface.getFrontImage() : null;
+    }
+
+    /**
+     * Enregistre la dernière image rendue hors écran.
+     * Pour un format sans transparence (par exemple jpg), l'image est d'abord convertie en RGB.
+     *
+     * @param file
+     * @param format Nom du format (voir {@link ImageIO#write(java.awt.image.RenderedImage, java.lang.String, java.io.File)}).
+     * @return true si l'image a été enregistrée.
+     * @throws IOException
+     */
+    public boolean exportFrame(File file, String format) throws IOException {
+        BufferedImage frame = getOffscreenFrame();
+        boolean rslt = false;
+
+        if (frame != null) {
+            // Sans encodeur pour l'ARGB, ImageIO.write ne produit rien
+            if (!ImageIO.getImageWriters(ImageTypeSpecifier.createFromRenderedImage(frame), format).hasNext()) {
+                BufferedImage rgb = new BufferedImage(frame.getWidth(), frame.getHeight(), BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = rgb.createGraphics();
+
+                try {
+                    g.drawImage(frame, 0, 0, null);
+                } finally {
+                    g.dispose();
+                }
+
+                frame = rgb;
+            }
+
+            rslt = ImageIO.write(frame, format, file);
+        }
+        return rslt;
+    }
+
+    /**
+     * Ajoute un écouteur des images rendues hors écran.
+     *
+     * @param listener
+     */
+    public void addFrameListener(FrameListener listener) {
+        if (listener != null) {
+            frameListeners.addIfAbsent(listener);
+        }
+    }
+
+    /**
+     * Retire un écouteur des images rendues hors écran.
+     *
+     * @param listener
+     */
+    public void removeFrameListener(FrameListener listener) {
+        frameListeners.remove(listener);
+    }
+
+    /**
+     * Demande la création des buffers suivant la configuration actuelle (nombre de buffers, plein écran...).
+     * La création est exécutée sur l'EDT sans bloquer l'appelant. Les demandes en attente sont regroupées.
+     *
+     * @return La création des buffers, à attendre si besoin.
+     */
+    public CompletableFuture<Void> recreateBufferStrategy() {
+        return fireHardwareStrategy();
+    }
+
+    /**
+     * Vérifie si une création des buffers est en attente ou en cours.
+     * Dans ce cas, {@link #getGraphics()} retourne <code>null</code>.
+     *
+     * @return
+     */
+    public boolean isBufferStrategyPending() {
+        return runningStrategy != null || pendingStrategy.get() != null;
+    }
+
+    /**
+     * Retourne la dernière création des buffers demandée, sans en demander une nouvelle.
+     * Permet d'attendre les buffers après {@link #setFullScreen(java.awt.DisplayMode, java.awt.Window)},
+     * {@link #setComponent(java.awt.Canvas)} ou {@link #restoreScreen()}.
+     *
+     * @return La création en attente ou en cours, sinon une création déjà terminée.
+     */
+    public CompletableFuture<Void> getPendingBufferStrategy() {
+        CompletableFuture<Void> rslt = pendingStrategy.get();
+
+        // Une demande en attente est exécutée après celle en cours
+        if (rslt == null) {
+            rslt = runningStrategy;
+        }
+
+        if (rslt == null) {
+            rslt = CompletableFuture.completedFuture(null);
+        }
+        return rslt;
+    }
+
     /**
      * Exécute la stratégie actuellement configurée.
+     * Depuis l'EDT, la stratégie est exécutée immédiatement.
+     *
+     * @return
      */
-    private void fireHardwareStrategy() {
+    private CompletableFuture<Void> fireHardwareStrategy() {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> pending = pendingStrategy.compareAndExchange(null, created);
+
+        if (pending == null) {
+            pending = created;
+
+            if (EventQueue.isDispatchThread()) {
+                runHardwareStrategy(created);
+            } else {
+                EventQueue.invokeLater(() -> runHardwareStrategy(created));
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Création des buffers sur l'EDT.
+     *
+     * @param created
+     */
+    private void runHardwareStrategy(CompletableFuture<Void> created) {
+        runningStrategy = created;
+
+        // Retirée avant l'exécution: une demande reçue pendant la création sera exécutée ensuite
+        pendingStrategy.compareAndSet(created, null);
+
+        RuntimeException error = null;
+
         try {
-            EventQueue.invokeAndWait(new HardwareBufferStrategy());
-        } catch (InterruptedException | InvocationTargetException ex) {
+            new HardwareBufferStrategy().run();
+
+            // Les nouveaux buffers sont vides
+            markAllDirty();
+        } catch (RuntimeException ex) {
             LoggerManager.getInstance().addError(ex);
+            error = ex;
+        } finally {
+            runningStrategy = null;
+        }
+
+        if (error == null) {
+            created.complete(null);
+        } else {
+            created.completeExceptionally(error);
         }
     }
 
@@ -693,22 +1725,29 @@ display:for (DisplayMode mode : modes) {
      */
     public int getAvailableAcceleratedMemory() {
         synchronized (strategy) {
+            GraphicsDevice device = getCurrentDevice();
+
             // Calcule le nombre de Méga Octets libres dans la carte graphique
-            return DEVICES[deviceNumber].getAvailableAcceleratedMemory() / 1048576;
+            return device != null ? device.getAvailableAcceleratedMemory() / 1048576 : 0;
         }
     }
 
     @Override
     public String getInformation() {
-        return ("Device=" + deviceNumber + " Component=" + (component != null ? component.getName() : "null") + " Fullscreen=" + (fullScreenWindow ? "On" : "Off"));
+        return ("Device=" + deviceNumber + " Component=" + (component != null ? component.getName() : "null") + " Fullscreen=" + (fullScreenWindow ? "On" : "Off")
+                + " Offscreen=" + (offscreen != null ? "On" : "Off")
+                + " Buffers=" + bufferCount + " " + frameTimes.getInformation() + " Redrawn=" + redrawnPixels);
     }
 
     @Override
     public void createProcess() {
+        addScreenDeviceListener(strategy);
     }
 
     @Override
     public void destroyProcess() {
+        removeScreenDeviceListener(strategy);
+
         if (strategy.running()) {
             strategy.stop();
         }
@@ -730,112 +1769,180 @@ display:for (DisplayMode mode : modes) {
              * Au maximum trois couches possibles (triple-buffering)
              * mais il est possible d'avoir des ralentissements...
              */
+            Component target;
+
             if (fullScreenWindow) {
-                Window w = getCurrentWindow();
+                target = getCurrentWindow();
+            } else {
+                target = component;
+            }
 
-                if (w != null) {
-                    if (!w.getIgnoreRepaint()) {
-                        w.setIgnoreRepaint(true);
-                    }
+            if (target != null) {
+                if (!target.getIgnoreRepaint()) {
+                    target.setIgnoreRepaint(true);
+                }
 
-                    try {
-                        w.createBufferStrategy(2);
-                    } catch (Exception ex) {
-                        LoggerManager.getInstance().addError(ex);
-                    }
+                try {
+                    createBufferStrategy(target, bufferCount);
+                } catch (Exception ex) {
+                    LoggerManager.getInstance().addError(ex);
+                }
+
+                // Mise à jour du gestionnaire graphique
+                setGraphicsConfiguration(target.getGraphicsConfiguration());
+            }
+        }
+
+        /**
+         * Création des buffers avec les capacités demandées.
+         * En cas de refus, le page flipping est abandonné, puis le choix est laissé à AWT.
+         *
+         * @param target
+         * @param count
+         */
+        private void createBufferStrategy(Component target, int count) {
+            ImageCapabilities accelerated = new ImageCapabilities(true);
+            boolean created = false;
+
+            if (pageFlipping) {
+                created = createBufferStrategy(target, count, new BufferCapabilities(accelerated, accelerated, BufferCapabilities.FlipContents.UNDEFINED));
+            }
+
+            if (!created) {
+                created = createBufferStrategy(target, count, new BufferCapabilities(accelerated, accelerated, null));
+            }
 
-                    // Mise à jour du gestionnaire graphique
-                    setGraphicsConfiguration(w.getGraphicsConfiguration());
+            if (!created) {
+                // AWT choisit la meilleure stratégie disponible
+                if (target instanceof Window w) {
+                    w.createBufferStrategy(count);
+                } else if (target instanceof Canvas c) {
+                    c.createBufferStrategy(count);
                 }
-            } else {
-                if (component != null) {
-                    if (!component.getIgnoreRepaint()) {
-                        component.setIgnoreRepaint(true);
-                    }
+            }
+        }
 
-                    try {
-                        component.createBufferStrategy(2);
-                    } catch (Exception ex) {
-                        LoggerManager.getInstance().addError(ex);
-                    }
+        /**
+         * Création des buffers avec des capacités précises.
+         *
+         * @param target
+         * @param count
+         * @param capabilities
+         * @return true si les capacités sont supportées.
+         */
+        private boolean createBufferStrategy(Component target, int count, BufferCapabilities capabilities) {
+            boolean created = false;
 
-                    // Mise à jour du gestionnaire graphique
-                    setGraphicsConfiguration(component.getGraphicsConfiguration());
+            try {
+                if (target instanceof Window w) {
+                    w.createBufferStrategy(count, capabilities);
+                    created = true;
+                } else if (target instanceof Canvas c) {
+                    c.createBufferStrategy(count, capabilities);
+                    created = true;
                 }
+            } catch (AWTException ex) {
+                LoggerManager.getInstance().addDebug("Buffer capabilities not supported (" + count + " buffers"
+                                                     + (capabilities.isPageFlipping() ? ", page flipping" : ", blitting") + "): " + ex.getMessage());
             }
+            return created;
         }
     }
 
     /**
      * Détection du changement d'écran.
+     * Les évènements de la fenêtre repoussent une unique échéance sur le planificateur partagé.
      */
-    private class DeviceStrategy implements ServiceProcess, ComponentListener {
+    private class DeviceStrategy implements ServiceProcess, ComponentListener, ScreenDeviceListener {
+
+        private volatile boolean enabled = true;
 
-        private volatile boolean locked = false;
+        private ScheduledFuture<?> pending = null;
 
-        private long lastEventTimestamp = 0;
+        /**
+         * Numéro de la dernière échéance planifiée.
+         */
+        private long generation = 0;
 
         @Override
         public void run() {
-            locked = true;
-
             if (!fullScreenWindow) {
-                // Attente de la fin du mouvement de l'application
-                while (lastEventTimestamp > System.currentTimeMillis()) {
-                    if (!locked) {
-                        // Dévrouillage forcé par une action exterieur
-                        break;
-                    }
-                    FactoryManager.getInstance(PerformanceMeasurement.class).optimizedSleep();
-                }
-
                 setDeviceNumber();
             }
+        }
 
-            locked = false;
+        /**
+         * Exécution d'une échéance planifiée.
+         * L'échéance n'est oubliée que si elle n'a pas été remplacée entre temps.
+         *
+         * @param scheduled Numéro de l'échéance.
+         */
+        private void fire(long scheduled) {
+            synchronized (this) {
+                if (generation == scheduled) {
+                    pending = null;
+                }
+            }
+
+            run();
         }
 
         @Override
         public void componentResized(ComponentEvent e) {
-            lastEventTimestamp = System.currentTimeMillis() + 500;
+            markAllDirty();
             start();
         }
 
         @Override
         public void componentMoved(ComponentEvent e) {
-            lastEventTimestamp = System.currentTimeMillis() + 500;
+            start();
+        }
+
+        @Override
+        public void devicesChanged(GraphicsDevice[] devices) {
+            // Le numéro de l'écran en cours peut ne plus être valide
+            synchronized (this) {
+                getCurrentDevice();
+            }
+
             start();
         }
 
         @Override
         public void componentShown(ComponentEvent e) {
-            locked = false;
+            enabled = true;
         }
 
         @Override
         public void componentHidden(ComponentEvent e) {
-            locked = true;
+            enabled = false;
+            stop();
         }
 
         @Override
-        public void start() {
-            if (!locked) {
-                locked = true;
+        public synchronized void start() {
+            if (enabled) {
+                // Report de l'échéance: attente de la fin du mouvement de l'application
+                if (pending != null) {
+                    pending.cancel(false);
+                }
 
-                Thread process = new ThreadHolderTask(this);
-                process.setPriority(Thread.MIN_PRIORITY);
-                process.start();
+                long scheduled = ++generation;
+                pending = DEVICE_SCHEDULER.schedule(() -> fire(scheduled), deviceDebounceDelay, TimeUnit.MILLISECONDS);
             }
         }
 
         @Override
-        public void stop() {
-            locked = false;
+        public synchronized void stop() {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
         }
 
         @Override
-        public boolean running() {
-            return !locked;
+        public synchronized boolean running() {
+            return pending != null && !pending.isDone();
         }
     }
 }
@@ -0,0 +1,254 @@
+package com.metallicbluedev.utils;
+
+import com.metallicbluedev.core.*;
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * Surface de dessin accélérée (stockée dans la mémoire de la carte graphique).
+ * Le contenu d'une {@link VolatileImage} peut être perdu à tout moment (changement de mode, veille...) :
+ * une image de sauvegarde en mémoire système permet de le restaurer automatiquement.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class AcceleratedSurface {
+
+    /**
+     * Largeur de la surface.
+     */
+    private final int width;
+
+    /**
+     * Hauteur de la surface.
+     */
+    private final int height;
+
+    /**
+     * Type de transparence de la surface.
+     */
+    private final int transparency;
+
+    /**
+     * L'image accélérée.
+     */
+    private VolatileImage volatileImage = null;
+
+    /**
+     * L'image de sauvegarde du contenu.
+     */
+    private BufferedImage backingImage = null;
+
+    /**
+     * Nouvelle surface accélérée.
+     *
+     * @param width
+     * @param height
+     * @param transparency {@link Transparency#OPAQUE}, {@link Transparency#BITMASK} ou {@link Transparency#TRANSLUCENT}.
+     */
+    public AcceleratedSurface(int width, int height, int transparency) {
+        this.width = width;
+        this.height = height;
+        this.transparency = transparency;
+    }
+
+    /**
+     * Retourne la largeur de la surface.
+     *
+     * @return
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retourne la hauteur de la surface.
+     *
+     * @return
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retourne le type de transparence de la surface.
+     *
+     * @return
+     */
+    public int getTransparency() {
+        return transparency;
+    }
+
+    /**
+     * Retourne la taille estimée de la surface en octet.
+     *
+     * @return
+     */
+    public long getSizeInBytes() {
+        return (long) width * height * 4;
+    }
+
+    /**
+     * Vérifie et restaure si besoin la surface.
+     * La surface est recréée si elle n'est plus compatible avec la configuration graphique courante,
+     * puis son contenu est restauré depuis l'image de sauvegarde.
+     *
+     * @return boolean Le contenu a été recréé ou restauré.
+     */
+    public boolean validate() {
+        boolean restored = false;
+        GraphicsConfiguration configuration = ScreenManager.getGraphicsConfiguration();
+
+        if (volatileImage == null) {
+            volatileImage = ImageHelper.createVolatileImage(width, height, transparency);
+            restored = true;
+        } else {
+            int state = volatileImage.validate(configuration);
+
+            if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                volatileImage.flush();
+                volatileImage = ImageHelper.createVolatileImage(width, height, transparency);
+                restored = true;
+            } else if (state == VolatileImage.IMAGE_RESTORED) {
+                restored = true;
+            }
+        }
+
+        if (restored) {
+            restore();
+        }
+        return restored;
+    }
+
+    /**
+     * Retourne les graphismes de la surface accélérée.
+     * Le contenu dessiné n'est conservé en cas de perte qu'après un appel à {@link #store()}.
+     * <p>
+     * Ne pas oublier de détruire les graphismes.
+     *
+     * @return
+     */
+    public Graphics2D createGraphics() {
+        validate();
+        return volatileImage.createGraphics();
+    }
+
+    /**
+     * Remplace le contenu de la surface par l'image.
+     * L'image est conservée dans la sauvegarde puis envoyée vers la carte graphique.
+     *
+     * @param image
+     */
+    public void setContent(Image image) {
+        Graphics2D g = getBackingImage().createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+
+        if (!validate()) {
+            restore();
+        }
+    }
+
+    /**
+     * Sauvegarde le contenu actuel de la surface accélérée.
+     * Ce contenu sera utilisé pour restaurer la surface en cas de perte.
+     */
+    public void store() {
+        if (volatileImage != null && !volatileImage.contentsLost()) {
+            Graphics2D g = getBackingImage().createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(volatileImage, 0, 0, null);
+            g.dispose();
+        }
+    }
+
+    /**
+     * Dessine la surface.
+     * Le dessin est recommencé tant que le contenu de la surface est perdu pendant l'opération.
+     *
+     * @param g
+     * @param x
+     * @param y
+     */
+    public void draw(Graphics g, int x, int y) {
+        int attempt = 0;
+
+        do {
+            validate();
+            g.drawImage(volatileImage, x, y, null);
+        } while (volatileImage.contentsLost() && ++attempt < 3);
+    }
+
+    /**
+     * Libère la mémoire de la carte graphique.
+     * La surface sera recréée depuis la sauvegarde à la prochaine utilisation.
+     */
+    public void flush() {
+        if (volatileImage != null) {
+            volatileImage.flush();
+            volatileImage = null;
+        }
+    }
+
+    /**
+     * Abandonne l'image de sauvegarde, pour libérer la mémoire système.
+     * En cas de perte, le contenu de la surface accélérée sera effacé au lieu d'être restauré.
+     */
+    void discardBackingImage() {
+        backingImage = null;
+    }
+
+    /**
+     * Efface le contenu de la surface et de sa sauvegarde.
+     */
+    public void clear() {
+        if (backingImage != null) {
+            clear(backingImage.createGraphics());
+        }
+
+        if (volatileImage != null) {
+            clear(volatileImage.createGraphics());
+        }
+    }
+
+    /**
+     * Efface le contenu des graphismes.
+     *
+     * @param g
+     */
+    private void clear(Graphics2D g) {
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+    }
+
+    /**
+     * Restaure le contenu de la surface accélérée depuis la sauvegarde.
+     */
+    private void restore() {
+        Graphics2D g = volatileImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+
+        if (backingImage != null) {
+            g.drawImage(backingImage, 0, 0, null);
+        } else {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, width, height);
+        }
+
+        g.dispose();
+    }
+
+    /**
+     * Retourne l'image de sauvegarde.
+     *
+     * @return
+     */
+    private BufferedImage getBackingImage() {
+        if (backingImage == null) {
+            backingImage = ScreenManager.getGraphicsConfiguration().createCompatibleImage(width, height, transparency);
+        }
+        return backingImage;
+    }
+}
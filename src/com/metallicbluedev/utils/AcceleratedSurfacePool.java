@@ -0,0 +1,193 @@
+package com.metallicbluedev.utils;
+
+import com.metallicbluedev.core.*;
+import com.metallicbluedev.factory.*;
+import java.util.*;
+
+/**
+ * Réserve de surfaces accélérées.
+ * Les surfaces libérées sont conservées par taille et transparence pour être réutilisées,
+ * dans la limite de la mémoire disponible de la carte graphique.
+ * L'image de sauvegarde en mémoire système d'une surface rendue est abandonnée :
+ * seule la mémoire de la carte graphique est conservée et comptée dans la limite.
+ *
+ * @version 1.00.02
+ * @author Sebastien Villemain
+ */
+public class AcceleratedSurfacePool {
+
+    /**
+     * Taille maximum par défaut (en octet), lorsque la mémoire de la carte graphique est inconnue.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1048576;
+
+    /**
+     * Les surfaces disponibles par taille et transparence, de la moins récemment utilisée à la plus récente.
+     */
+    private final LinkedHashMap<SurfaceKey, ArrayDeque<AcceleratedSurface>> surfaces = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Les surfaces en cours d'utilisation, fournies par cette réserve.
+     */
+    private final Set<AcceleratedSurface> borrowed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Taille maximum des surfaces (en octet).
+     */
+    private final long memoryBudget;
+
+    /**
+     * Taille des surfaces en cours d'utilisation et disponibles (en octet).
+     */
+    private long allocatedBytes = 0;
+
+    /**
+     * Taille des surfaces disponibles (en octet).
+     */
+    private long pooledBytes = 0;
+
+    /**
+     * Nouvelle réserve limitée par la mémoire disponible de la carte graphique.
+     */
+    public AcceleratedSurfacePool() {
+        this(getAvailableAcceleratedMemory());
+    }
+
+    /**
+     * Nouvelle réserve.
+     *
+     * @param memoryBudget Taille maximum des surfaces (en octet).
+     */
+    public AcceleratedSurfacePool(long memoryBudget) {
+        this.memoryBudget = memoryBudget > 0 ? memoryBudget : DEFAULT_MEMORY_BUDGET;
+    }
+
+    /**
+     * Retourne la mémoire disponible de la carte graphique (en octet).
+     *
+     * @return
+     */
+    private static long getAvailableAcceleratedMemory() {
+        long memory = 0;
+
+        if (FactoryManager.hasInstance(ScreenManager.class)) {
+            memory = (long) FactoryManager.getInstance(ScreenManager.class).getAvailableAcceleratedMemory() * 1048576;
+        }
+        return memory;
+    }
+
+    /**
+     * Retourne une surface accélérée.
+     * Une surface disponible de même taille et transparence est réutilisée en priorité.
+     * Le contenu d'une surface réutilisée n'est pas garanti.
+     *
+     * @param width
+     * @param height
+     * @param transparency
+     * @return
+     */
+    public synchronized AcceleratedSurface acquire(int width, int height, int transparency) {
+        ArrayDeque<AcceleratedSurface> available = surfaces.get(new SurfaceKey(width, height, transparency));
+        AcceleratedSurface surface = available != null ? available.pollLast() : null;
+
+        if (surface != null) {
+            pooledBytes -= surface.getSizeInBytes();
+        } else {
+            surface = new AcceleratedSurface(width, height, transparency);
+            allocatedBytes += surface.getSizeInBytes();
+
+            // Libère les surfaces disponibles les moins récemment utilisées
+            trim(memoryBudget);
+        }
+
+        borrowed.add(surface);
+        return surface;
+    }
+
+    /**
+     * Rend une surface à la réserve.
+     * Son image de sauvegarde est abandonnée, le contenu d'une surface réutilisée n'étant pas garanti.
+     * Si la limite de mémoire est atteinte, la surface est détruite.
+     * Une surface qui ne provient pas de cette réserve, ou déjà rendue, est ignorée.
+     *
+     * @param surface
+     */
+    public synchronized void release(AcceleratedSurface surface) {
+        if (surface != null && borrowed.remove(surface)) {
+            surface.discardBackingImage();
+
+            if (allocatedBytes <= memoryBudget) {
+                surfaces.computeIfAbsent(new SurfaceKey(surface.getWidth(), surface.getHeight(), surface.getTransparency()), (SurfaceKey k) -> new ArrayDeque<>()).addLast(surface);
+                pooledBytes += surface.getSizeInBytes();
+            } else {
+                surface.flush();
+                allocatedBytes -= surface.getSizeInBytes();
+            }
+        }
+    }
+
+    /**
+     * Détruit toutes les surfaces disponibles.
+     */
+    public synchronized void clear() {
+        trim(0);
+    }
+
+    /**
+     * Retourne la taille des surfaces en cours d'utilisation et disponibles (en octet).
+     *
+     * @return
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Retourne la taille des surfaces disponibles (en octet).
+     *
+     * @return
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Retourne la taille maximum des surfaces (en octet).
+     *
+     * @return
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Détruit les surfaces disponibles jusqu'à ce que la taille totale ne dépasse plus la limite.
+     *
+     * @param limit
+     */
+    private void trim(long limit) {
+        Iterator<ArrayDeque<AcceleratedSurface>> it = surfaces.values().iterator();
+
+        while (allocatedBytes > limit && it.hasNext()) {
+            ArrayDeque<AcceleratedSurface> available = it.next();
+
+            while (allocatedBytes > limit && !available.isEmpty()) {
+                AcceleratedSurface surface = available.pollFirst();
+                surface.flush();
+                pooledBytes -= surface.getSizeInBytes();
+                allocatedBytes -= surface.getSizeInBytes();
+            }
+
+            if (available.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Clé de la réserve.
+     */
+    private record SurfaceKey(int width, int height, int transparency) {
+
+    }
+}
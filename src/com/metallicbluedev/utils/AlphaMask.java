@@ -0,0 +1,233 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * Masque de transparence d'une image, calculé une seule fois.
+ * Un bit par pixel indique si le pixel est visible (alpha supérieur au seuil).
+ * Un second niveau (un bit par bloc de 8x8 pixels) permet de rejeter rapidement les zones vides.
+ * <p>
+ * Les tests de contact n'effectuent aucune allocation.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class AlphaMask {
+
+    /**
+     * Taille d'un bloc (en pixel), puissance de deux.
+     */
+    private static final int BLOCK_SHIFT = 3;
+
+    private final int width;
+
+    private final int height;
+
+    private final int alphaMaxLevel;
+
+    /**
+     * Nombre de mots par ligne de pixels.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * Bits des pixels visibles, ligne par ligne.
+     */
+    private final long[] bits;
+
+    /**
+     * Nombre de mots par ligne de blocs.
+     */
+    private final int wordsPerBlockRow;
+
+    /**
+     * Bits des blocs contenant au moins un pixel visible.
+     */
+    private final long[] blockBits;
+
+    private AlphaMask(int width, int height, int alphaMaxLevel) {
+        this.width = width;
+        this.height = height;
+        this.alphaMaxLevel = alphaMaxLevel;
+        wordsPerRow = (width + 63) >>> 6;
+        bits = new long[wordsPerRow * height];
+
+        int blockColumns = (width + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+        int blockRows = (height + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+        wordsPerBlockRow = (blockColumns + 63) >>> 6;
+        blockBits = new long[wordsPerBlockRow * blockRows];
+    }
+
+    /**
+     * Création du masque de l'image.
+     *
+     * @param image
+     * @param alphaMaxLevel Seuil maximum de tolèrence (de 0 à 255) : un pixel dont l'alpha est supérieur est visible.
+     * @return
+     */
+    public static AlphaMask create(Image image, int alphaMaxLevel) {
+        BufferedImage source = TiledImageScaler.toIntRasterImage(image);
+        AlphaMask mask = new AlphaMask(source.getWidth(), source.getHeight(), alphaMaxLevel);
+        int[] row = new int[mask.width];
+        boolean opaque = source.getType() == BufferedImage.TYPE_INT_RGB;
+
+        for (int y = 0; y < mask.height; y++) {
+            TiledImageScaler.getPixels(source, 0, y, mask.width, 1, row);
+
+            for (int x = 0; x < mask.width; x++) {
+                if (opaque || (row[x] >>> 24) > alphaMaxLevel) {
+                    mask.bits[y * mask.wordsPerRow + (x >>> 6)] |= 1L << x;
+
+                    int block = (y >>> BLOCK_SHIFT) * mask.wordsPerBlockRow * 64 + (x >>> BLOCK_SHIFT);
+                    mask.blockBits[block >>> 6] |= 1L << block;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Retourne la largeur du masque.
+     *
+     * @return
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retourne la hauteur du masque.
+     *
+     * @return
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retourne le seuil de tolèrence utilisé.
+     *
+     * @return
+     */
+    public int getAlphaMaxLevel() {
+        return alphaMaxLevel;
+    }
+
+    /**
+     * Vérifie si le pixel est visible.
+     * Un pixel en dehors de l'image n'est pas visible.
+     *
+     * @param x
+     * @param y
+     * @return
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height
+               && (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Vérifie si au moins un pixel visible se trouve dans le rectangle.
+     *
+     * @param x
+     * @param y
+     * @param w
+     * @param h
+     * @return
+     */
+    public boolean intersects(int x, int y, int w, int h) {
+        int left = Math.max(0, x);
+        int top = Math.max(0, y);
+        int right = Math.min(width, x + w);
+        int bottom = Math.min(height, y + h);
+        boolean rslt = false;
+
+        if (left < right && top < bottom && hasBlocks(left, top, right, bottom)) {
+            for (int row = top; row < bottom && !rslt; row++) {
+                for (int column = left; column < right && !rslt; column += 64) {
+                    rslt = getBits(bits, row * wordsPerRow, column, right - column) != 0;
+                }
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Vérifie si les pixels visibles des deux masques se superposent.
+     *
+     * @param other Le second masque.
+     * @param dx Position horizontale du second masque par rapport à celui-ci.
+     * @param dy Position verticale du second masque par rapport à celui-ci.
+     * @return
+     */
+    public boolean intersects(AlphaMask other, int dx, int dy) {
+        int left = Math.max(0, dx);
+        int top = Math.max(0, dy);
+        int right = Math.min(width, dx + other.width);
+        int bottom = Math.min(height, dy + other.height);
+        boolean rslt = false;
+
+        // Rejet rapide par blocs dans chacun des masques
+        if (left < right && top < bottom
+            && hasBlocks(left, top, right, bottom)
+            && other.hasBlocks(left - dx, top - dy, right - dx, bottom - dy)) {
+            for (int row = top; row < bottom && !rslt; row++) {
+                int thisOffset = row * wordsPerRow;
+                int otherOffset = (row - dy) * other.wordsPerRow;
+
+                for (int column = left; column < right && !rslt; column += 64) {
+                    int count = right - column;
+                    rslt = (getBits(bits, thisOffset, column, count) & getBits(other.bits, otherOffset, column - dx, count)) != 0;
+                }
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Vérifie si au moins un bloc de la zone contient un pixel visible.
+     *
+     * @param left
+     * @param top
+     * @param right Exclus.
+     * @param bottom Exclus.
+     * @return
+     */
+    private boolean hasBlocks(int left, int top, int right, int bottom) {
+        int blockLeft = left >>> BLOCK_SHIFT;
+        int blockRight = ((right - 1) >>> BLOCK_SHIFT) + 1;
+        boolean rslt = false;
+
+        for (int blockRow = top >>> BLOCK_SHIFT; blockRow <= (bottom - 1) >>> BLOCK_SHIFT && !rslt; blockRow++) {
+            for (int column = blockLeft; column < blockRight && !rslt; column += 64) {
+                rslt = getBits(blockBits, blockRow * wordsPerBlockRow, column, blockRight - column) != 0;
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne jusqu'à 64 bits consécutifs d'une ligne, à partir de la position indiquée.
+     *
+     * @param words
+     * @param rowOffset Premier mot de la ligne.
+     * @param start Premier bit dans la ligne.
+     * @param count Nombre de bits souhaités (limité à 64).
+     * @return
+     */
+    private static long getBits(long[] words, int rowOffset, int start, int count) {
+        int index = rowOffset + (start >>> 6);
+        int shift = start & 63;
+        long value = words[index] >>> shift;
+
+        if (shift != 0 && count > 64 - shift) {
+            value |= words[index + 1] << (64 - shift);
+        }
+
+        if (count < 64) {
+            value &= (1L << count) - 1;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,297 @@
+package com.metallicbluedev.utils;
+
+import com.metallicbluedev.logger.*;
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.net.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import javax.imageio.*;
+
+/**
+ * Chargement asynchrone des images redimensionnées (miniatures).
+ * Chaque demande suit la chaîne décodage, conversion en {@link BufferedImage}, redimensionnement puis mise en cache,
+ * sur un groupe de threads limité, sans jamais bloquer l'EDT.
+ * <p>
+ * Une demande annulée (par exemple, une miniature sortie de la zone visible) est retirée de la file
+ * ou interrompue entre deux étapes.
+ * La file d'attente est limitée : lorsqu'elle est pleine, la demande la plus ancienne est annulée
+ * au profit de la nouvelle (les dernières demandes sont les plus utiles à l'affichage).
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public class AsyncImageLoader {
+
+    /**
+     * Nombre maximum de demandes en attente par défaut.
+     */
+    public static final int DEFAULT_MAXIMUM_PENDING = 256;
+
+    /**
+     * Cache des images redimensionnées, optionnel.
+     */
+    private final ImageCache cache;
+
+    /**
+     * Mode de redimensionnement.
+     */
+    private final ScaleMode mode;
+
+    /**
+     * Les threads de chargement.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Nouveau chargeur utilisant tous les processeurs, en redimensionnement {@link ScaleMode#DIRECT}.
+     *
+     * @param cache Cache des images redimensionnées ou <code>null</code>.
+     */
+    public AsyncImageLoader(ImageCache cache) {
+        this(cache, Runtime.getRuntime().availableProcessors(), ScaleMode.DIRECT);
+    }
+
+    /**
+     * Nouveau chargeur.
+     *
+     * @param cache Cache des images redimensionnées ou <code>null</code>.
+     * @param threads Nombre maximum de chargements simultanés.
+     * @param mode Mode de redimensionnement ou <code>null</code> pour {@link ScaleMode#DIRECT}.
+     *             Pour des miniatures, {@link ScaleMode#AREA_AVERAGING} donne une meilleure qualité.
+     */
+    public AsyncImageLoader(ImageCache cache, int threads, ScaleMode mode) {
+        this(cache, threads, DEFAULT_MAXIMUM_PENDING, mode);
+    }
+
+    /**
+     * Nouveau chargeur.
+     *
+     * @param cache Cache des images redimensionnées ou <code>null</code>.
+     * @param threads Nombre maximum de chargements simultanés.
+     * @param maximumPending Nombre maximum de demandes en attente d'un thread.
+     * @param mode Mode de redimensionnement ou <code>null</code> pour {@link ScaleMode#DIRECT}.
+     */
+    public AsyncImageLoader(ImageCache cache, int threads, int maximumPending, ScaleMode mode) {
+        this.cache = cache;
+        this.mode = mode;
+
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, maximumPending)), (Runnable r) -> {
+            Thread thread = new Thread(r, "AsyncImageLoader");
+            thread.setDaemon(true);
+            return thread;
+        }, AsyncImageLoader::discardOldest);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Chargement d'une image redimensionnée depuis un fichier.
+     *
+     * @param file
+     * @param widthMax
+     * @param heightMax
+     * @return L'image redimensionnée, à annuler si elle n'est plus utile.
+     */
+    public CompletableFuture<BufferedImage> load(File file, int widthMax, int heightMax) {
+        return submit(new LoadKey(file, widthMax, heightMax), () -> ImageIO.read(file));
+    }
+
+    /**
+     * Chargement d'une image redimensionnée depuis une adresse.
+     *
+     * @param url
+     * @param widthMax
+     * @param heightMax
+     * @return L'image redimensionnée, à annuler si elle n'est plus utile.
+     */
+    public CompletableFuture<BufferedImage> load(URL url, int widthMax, int heightMax) {
+        return submit(new LoadKey(url.toExternalForm(), widthMax, heightMax), () -> ImageIO.read(url));
+    }
+
+    /**
+     * Chargement d'une image redimensionnée depuis un fichier puis livraison sur l'EDT.
+     * Les erreurs sont journalisées, une demande annulée n'est jamais livrée.
+     *
+     * @param file
+     * @param widthMax
+     * @param heightMax
+     * @param consumer Appelé sur l'EDT avec l'image redimensionnée.
+     * @return L'image redimensionnée, à annuler si elle n'est plus utile.
+     */
+    public CompletableFuture<BufferedImage> load(File file, int widthMax, int heightMax, Consumer<? super BufferedImage> consumer) {
+        return deliver(load(file, widthMax, heightMax), consumer);
+    }
+
+    /**
+     * Chargement d'une image redimensionnée depuis une adresse puis livraison sur l'EDT.
+     * Les erreurs sont journalisées, une demande annulée n'est jamais livrée.
+     *
+     * @param url
+     * @param widthMax
+     * @param heightMax
+     * @param consumer Appelé sur l'EDT avec l'image redimensionnée.
+     * @return L'image redimensionnée, à annuler si elle n'est plus utile.
+     */
+    public CompletableFuture<BufferedImage> load(URL url, int widthMax, int heightMax, Consumer<? super BufferedImage> consumer) {
+        return deliver(load(url, widthMax, heightMax), consumer);
+    }
+
+    /**
+     * Retourne le nombre de demandes en attente d'un thread.
+     *
+     * @return
+     */
+    public int getPendingCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Retourne le nombre de chargements en cours.
+     *
+     * @return
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Arrêt du chargeur.
+     * Les demandes en attente sont abandonnées et les chargements en cours sont interrompus.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Soumission d'une demande.
+     *
+     * @param key
+     * @param decoder
+     * @return
+     */
+    private CompletableFuture<BufferedImage> submit(LoadKey key, Callable<BufferedImage> decoder) {
+        CompletableFuture<BufferedImage> result;
+        BufferedImage image = cache != null ? cache.get(key) : null;
+
+        if (image != null) {
+            result = CompletableFuture.completedFuture(image);
+        } else {
+            CompletableFuture<BufferedImage> pending = new CompletableFuture<>();
+            LoadTask task = new LoadTask(pending, () -> process(pending, key, decoder));
+
+            // L'annulation retire la tâche de la file ou interrompt le décodage
+            pending.whenComplete((BufferedImage i, Throwable ex) -> {
+                if (pending.isCancelled()) {
+                    task.cancel(true);
+                    executor.remove(task);
+                }
+            });
+
+            executor.execute(task);
+            result = pending;
+        }
+        return result;
+    }
+
+    /**
+     * Demande refusée par la file pleine : la demande la plus ancienne est annulée pour laisser la place.
+     * Après l'arrêt du chargeur, la demande refusée est annulée.
+     *
+     * @param r
+     * @param executor
+     */
+    private static void discardOldest(Runnable r, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            if (r instanceof LoadTask task) {
+                task.pending.cancel(false);
+            }
+        } else {
+            if (executor.getQueue().poll() instanceof LoadTask oldest) {
+                oldest.pending.cancel(false);
+            }
+
+            executor.execute(r);
+        }
+    }
+
+    /**
+     * Exécution d'une demande.
+     * L'annulation est vérifiée entre chaque étape.
+     *
+     * @param result
+     * @param key
+     * @param decoder
+     */
+    private void process(CompletableFuture<BufferedImage> result, LoadKey key, Callable<BufferedImage> decoder) {
+        try {
+            BufferedImage image = null;
+
+            if (!result.isDone()) {
+                image = decoder.call();
+
+                if (image == null) {
+                    throw new IOException("Unsupported image format for " + key.source + ".");
+                }
+            }
+
+            if (!result.isDone()) {
+                image = ImageHelper.toBufferedImage(image);
+            }
+
+            if (!result.isDone()) {
+                image = ImageHelper.scaleMax(image, key.widthMax, key.heightMax, mode);
+
+                if (cache != null) {
+                    cache.put(key, image);
+                }
+
+                result.complete(image);
+            }
+        } catch (Exception ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Livraison du résultat sur l'EDT.
+     *
+     * @param result
+     * @param consumer
+     * @return
+     */
+    private static CompletableFuture<BufferedImage> deliver(CompletableFuture<BufferedImage> result, Consumer<? super BufferedImage> consumer) {
+        result.whenComplete((BufferedImage image, Throwable ex) -> {
+            if (ex == null) {
+                EventQueue.invokeLater(() -> {
+                    if (!result.isCancelled()) {
+                        consumer.accept(image);
+                    }
+                });
+            } else if (!result.isCancelled()) {
+                LoggerManager.getInstance().addError(ex);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Tâche de chargement, liée au résultat de la demande.
+     */
+    private static final class LoadTask extends FutureTask<Void> {
+
+        private final CompletableFuture<BufferedImage> pending;
+
+        private LoadTask(CompletableFuture<BufferedImage> pending, Runnable runnable) {
+            super(runnable, null);
+            this.pending = pending;
+        }
+    }
+
+    /**
+     * Clé d'une image redimensionnée.
+     */
+    private record LoadKey(Object source, int widthMax, int heightMax) {
+
+    }
+}
@@ -0,0 +1,142 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * Zone d'une image rangée dans un {@link TextureAtlas}.
+ * Une zone retirée de l'atlas n'est plus valide et ne doit plus être dessinée.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public class AtlasRegion {
+
+    /**
+     * La page contenant l'image.
+     */
+    private final BufferedImage page;
+
+    /**
+     * Numéro de la page dans l'atlas.
+     */
+    private final int pageIndex;
+
+    private final int x;
+
+    private final int y;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * Etat de la zone.
+     */
+    private volatile boolean valid = true;
+
+    AtlasRegion(BufferedImage page, int pageIndex, int x, int y, int width, int height) {
+        this.page = page;
+        this.pageIndex = pageIndex;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Dessine l'image à la position indiquée.
+     *
+     * @param g
+     * @param dx
+     * @param dy
+     */
+    public void draw(Graphics g, int dx, int dy) {
+        draw(g, dx, dy, width, height);
+    }
+
+    /**
+     * Dessine l'image redimensionnée à la position indiquée.
+     *
+     * @param g
+     * @param dx
+     * @param dy
+     * @param dw
+     * @param dh
+     */
+    public void draw(Graphics g, int dx, int dy, int dw, int dh) {
+        if (valid) {
+            g.drawImage(page, dx, dy, dx + dw, dy + dh, x, y, x + width, y + height, null);
+        }
+    }
+
+    /**
+     * Retourne la page contenant l'image.
+     *
+     * @return
+     */
+    public BufferedImage getPage() {
+        return page;
+    }
+
+    /**
+     * Retourne le numéro de la page dans l'atlas.
+     *
+     * @return
+     */
+    public int getPageIndex() {
+        return pageIndex;
+    }
+
+    /**
+     * Retourne la position horizontale de l'image dans la page.
+     *
+     * @return
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Retourne la position verticale de l'image dans la page.
+     *
+     * @return
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Retourne la largeur de l'image.
+     *
+     * @return
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retourne la hauteur de l'image.
+     *
+     * @return
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Vérifie si la zone est toujours rangée dans l'atlas.
+     *
+     * @return
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Signale le retrait de la zone.
+     */
+    void invalidate() {
+        valid = false;
+    }
+}
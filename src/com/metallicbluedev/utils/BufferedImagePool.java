@@ -0,0 +1,154 @@
+package com.metallicbluedev.utils;
+
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * Réserve d'images de destination.
+ * Les images libérées sont conservées par taille et type pour être réutilisées,
+ * ce qui évite une allocation à chaque redimensionnement de même taille (animations, aperçus vidéo).
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class BufferedImagePool {
+
+    /**
+     * Taille maximum des images disponibles par défaut (en octet).
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 32L * 1048576;
+
+    /**
+     * Les images disponibles par taille et type, de la moins récemment utilisée à la plus récente.
+     */
+    private final LinkedHashMap<ImageKey, ArrayDeque<BufferedImage>> images = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Les images disponibles, par identité.
+     * Une image déjà rendue n'est pas ajoutée une seconde fois.
+     */
+    private final Set<BufferedImage> pooled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Taille maximum des images disponibles (en octet).
+     */
+    private final long maximumSize;
+
+    /**
+     * Taille des images disponibles (en octet).
+     */
+    private long pooledBytes = 0;
+
+    /**
+     * Nouvelle réserve avec la taille maximum par défaut.
+     */
+    public BufferedImagePool() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Nouvelle réserve.
+     *
+     * @param maximumSize Taille maximum des images disponibles (en octet).
+     */
+    public BufferedImagePool(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Retourne une image.
+     * Une image disponible de même taille et type est réutilisée en priorité.
+     * Le contenu d'une image réutilisée n'est pas garanti.
+     *
+     * @param width
+     * @param height
+     * @param type Type de l'image (voir {@link BufferedImage#TYPE_INT_ARGB}).
+     * @return
+     */
+    public synchronized BufferedImage acquire(int width, int height, int type) {
+        ArrayDeque<BufferedImage> available = images.get(new ImageKey(width, height, type));
+        BufferedImage image = available != null ? available.pollLast() : null;
+
+        if (image != null) {
+            pooled.remove(image);
+            pooledBytes -= ImageCache.getSizeInBytes(image);
+        } else {
+            image = new BufferedImage(width, height, type);
+        }
+        return image;
+    }
+
+    /**
+     * Rend une image à la réserve.
+     * Les images disponibles les moins récemment utilisées sont abandonnées au-delà de la taille maximum.
+     * Une image déjà rendue (et pas encore reprise) est ignorée.
+     *
+     * @param image
+     */
+    public synchronized void release(BufferedImage image) {
+        if (image != null && image.getType() != BufferedImage.TYPE_CUSTOM) {
+            long size = ImageCache.getSizeInBytes(image);
+
+            if (size <= maximumSize && pooled.add(image)) {
+                images.computeIfAbsent(new ImageKey(image.getWidth(), image.getHeight(), image.getType()), (ImageKey k) -> new ArrayDeque<>()).addLast(image);
+                pooledBytes += size;
+                trim(maximumSize);
+            }
+        }
+    }
+
+    /**
+     * Abandonne toutes les images disponibles.
+     */
+    public synchronized void clear() {
+        trim(0);
+    }
+
+    /**
+     * Retourne la taille des images disponibles (en octet).
+     *
+     * @return
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Retourne la taille maximum des images disponibles (en octet).
+     *
+     * @return
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Abandonne les images disponibles jusqu'à ce que leur taille ne dépasse plus la limite.
+     *
+     * @param limit
+     */
+    private void trim(long limit) {
+        Iterator<ArrayDeque<BufferedImage>> it = images.values().iterator();
+
+        while (pooledBytes > limit && it.hasNext()) {
+            ArrayDeque<BufferedImage> available = it.next();
+
+            while (pooledBytes > limit && !available.isEmpty()) {
+                BufferedImage image = available.pollFirst();
+                pooled.remove(image);
+                pooledBytes -= ImageCache.getSizeInBytes(image);
+            }
+
+            if (available.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Clé de la réserve.
+     */
+    private record ImageKey(int width, int height, int type) {
+
+    }
+}
@@ -0,0 +1,442 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.lang.ref.*;
+import java.util.*;
+
+/**
+ * Cache des images transformées.
+ * Mémorise le résultat des opérations de {@link ImageHelper} par identité de l'image source et paramètres de l'opération.
+ * <p>
+ * Les images les moins récemment utilisées sont retirées dès que la taille maximum (en octet) est dépassée.
+ * Les résultats sont conservés par référence douce : ils peuvent être libérés par le ramasse-miettes en cas de manque de mémoire.
+ * <p>
+ * Remarque :
+ * Les images sources sont considérées comme immuables.
+ * Après modification d'une image source, appeler {@link #invalidate(java.awt.Image)}.
+ * Les images retournées sont partagées entre tous les appelants et doivent être utilisées en lecture seule:
+ * copier l'image avant de la modifier.
+ *
+ * @version 1.01.00
+ * @author Sebastien Villemain
+ */
+public class ImageCache {
+
+    /**
+     * Taille maximum par défaut (en octet).
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 32L * 1048576;
+
+    /**
+     * Les images en cache, de la moins récemment utilisée à la plus récente.
+     */
+    private final LinkedHashMap<Object, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Images sources libérées par le ramasse-miettes.
+     */
+    private final ReferenceQueue<Image> collectedSources = new ReferenceQueue<>();
+
+    /**
+     * Images en cache libérées par le ramasse-miettes.
+     */
+    private final ReferenceQueue<BufferedImage> collectedImages = new ReferenceQueue<>();
+
+    /**
+     * Taille maximum (en octet).
+     */
+    private final long maximumSize;
+
+    /**
+     * Taille actuelle (en octet).
+     */
+    private long currentSize = 0;
+
+    /**
+     * Nombre de résultats trouvés dans le cache.
+     */
+    private long hitCount = 0;
+
+    /**
+     * Nombre de résultats absents du cache.
+     */
+    private long missCount = 0;
+
+    public ImageCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Nouveau cache.
+     *
+     * @param maximumSize Taille maximum (en octet).
+     */
+    public ImageCache(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Redimensionne une image pour une taille exacte.
+     * Voir {@link ImageHelper#scale(java.awt.Image, int, int)}.
+     *
+     * @param image
+     * @param width
+     * @param height
+     * @return
+     */
+    public BufferedImage scale(Image image, int width, int height) {
+        BufferedImage rslt = null;
+
+        if (image != null) {
+            OperationKey key = new OperationKey(image, collectedSources, "scale", width, height, null);
+            rslt = get(key);
+
+            if (rslt == null) {
+                rslt = ImageHelper.scale(image, width, height);
+                put(key, rslt);
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Redimensionne une image en suivant les tailles recommandées.
+     * Voir {@link ImageHelper#scaleMax(java.awt.Image, int, int)}.
+     *
+     * @param image
+     * @param widthMax
+     * @param heightMax
+     * @return
+     */
+    public BufferedImage scaleMax(Image image, int widthMax, int heightMax) {
+        BufferedImage rslt = null;
+
+        if (image != null) {
+            OperationKey key = new OperationKey(image, collectedSources, "scaleMax", widthMax, heightMax, null);
+            rslt = get(key);
+
+            if (rslt == null) {
+                rslt = ImageHelper.scaleMax(image, widthMax, heightMax);
+
+                // Une image non redimensionnée n'est pas mise en cache
+                if (rslt != image) {
+                    put(key, rslt);
+                }
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne horizontalement une image (comme un miroire).
+     * Voir {@link ImageHelper#getMirrorImage(java.awt.Image)}.
+     *
+     * @param image
+     * @return
+     */
+    public BufferedImage getMirrorImage(Image image) {
+        BufferedImage rslt = null;
+
+        if (image != null) {
+            OperationKey key = new OperationKey(image, collectedSources, "mirror", 0, 0, null);
+            rslt = get(key);
+
+            if (rslt == null) {
+                rslt = ImageHelper.getMirrorImage(image);
+                put(key, rslt);
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Transforme une image.
+     * Voir {@link ImageHelper#transform(java.awt.Image, java.awt.geom.AffineTransform)}.
+     *
+     * @param image
+     * @param transform
+     * @return
+     */
+    public BufferedImage transform(Image image, AffineTransform transform) {
+        BufferedImage rslt = null;
+
+        if (image != null) {
+            OperationKey key = new OperationKey(image, collectedSources, "transform", 0, 0, new AffineTransform(transform));
+            rslt = get(key);
+
+            if (rslt == null) {
+                rslt = ImageHelper.transform(image, transform);
+                put(key, rslt);
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne l'image en cache.
+     * Si l'image est absente ou a été libérée par le ramasse-miettes, retourne
+     * <code>null</code>.
+     * L'image retournée est partagée: elle ne doit pas être modifiée.
+     *
+     * @param key
+     * @return BufferedImage or <code>null</code>.
+     */
+    public synchronized BufferedImage get(Object key) {
+        BufferedImage image = null;
+        purge();
+
+        CacheEntry entry = entries.get(key);
+
+        if (entry != null) {
+            image = entry.get();
+
+            if (image == null) {
+                // Libérée par manque de mémoire
+                entries.remove(key);
+                currentSize -= entry.size;
+            }
+        }
+
+        if (image != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return image;
+    }
+
+    /**
+     * Ajoute une image en cache.
+     * Une image plus grande que la taille maximum du cache est ignorée.
+     *
+     * @param key
+     * @param image
+     */
+    public synchronized void put(Object key, BufferedImage image) {
+        if (key != null && image != null) {
+            purge();
+
+            long size = getSizeInBytes(image);
+
+            if (size <= maximumSize) {
+                CacheEntry previous = entries.put(key, new CacheEntry(key, image, size, collectedImages));
+
+                if (previous != null) {
+                    currentSize -= previous.size;
+                }
+
+                currentSize += size;
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Supprime du cache tous les résultats liés à l'image source.
+     *
+     * @param image
+     */
+    public synchronized void invalidate(Image image) {
+        Iterator<Map.Entry<Object, CacheEntry>> it = entries.entrySet().iterator();
+
+        while (it.hasNext()) {
+            Map.Entry<Object, CacheEntry> entry = it.next();
+
+            if (entry.getKey() instanceof OperationKey key && key.source.get() == image) {
+                currentSize -= entry.getValue().size;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Vide le cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentSize = 0;
+    }
+
+    /**
+     * Retourne la taille actuelle (en octet).
+     *
+     * @return
+     */
+    public synchronized long getCurrentSize() {
+        purge();
+        return currentSize;
+    }
+
+    /**
+     * Retourne la taille maximum (en octet).
+     *
+     * @return
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Retourne le nombre de résultats trouvés dans le cache.
+     *
+     * @return
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Retourne le nombre de résultats absents du cache.
+     *
+     * @return
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Retourne le taux de résultats trouvés dans le cache (de 0 à 1).
+     *
+     * @return
+     */
+    public synchronized double getHitRatio() {
+        long total = hitCount + missCount;
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    /**
+     * Retourne le résumé des statistiques.
+     *
+     * @return
+     */
+    public synchronized String getInformation() {
+        purge();
+        return ("Entries=" + entries.size() + " Size=" + currentSize + "/" + maximumSize + " Hits=" + hitCount + " Misses=" + missCount);
+    }
+
+    /**
+     * Retourne la taille estimée de l'image en octet.
+     *
+     * @param image
+     * @return
+     */
+    static long getSizeInBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    /**
+     * Retire les images les moins récemment utilisées jusqu'à respecter la taille maximum.
+     */
+    private void trim() {
+        Iterator<CacheEntry> it = entries.values().iterator();
+
+        while (currentSize > maximumSize && it.hasNext()) {
+            currentSize -= it.next().size;
+            it.remove();
+        }
+    }
+
+    /**
+     * Retire les résultats libérés par le ramasse-miettes et ceux dont l'image source a été libérée.
+     */
+    private void purge() {
+        Reference<? extends BufferedImage> reference;
+
+        while ((reference = collectedImages.poll()) != null) {
+            CacheEntry entry = (CacheEntry) reference;
+
+            // L'entrée peut déjà avoir été remplacée ou retirée
+            if (entries.remove(entry.key, entry)) {
+                currentSize -= entry.size;
+            }
+        }
+
+        boolean collected = false;
+
+        while (collectedSources.poll() != null) {
+            collected = true;
+        }
+
+        if (collected) {
+            Iterator<Map.Entry<Object, CacheEntry>> it = entries.entrySet().iterator();
+
+            while (it.hasNext()) {
+                Map.Entry<Object, CacheEntry> entry = it.next();
+
+                if (entry.getKey() instanceof OperationKey key && key.source.get() == null) {
+                    currentSize -= entry.getValue().size;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Image en cache, conservée par référence douce.
+     */
+    private static final class CacheEntry extends SoftReference<BufferedImage> {
+
+        private final Object key;
+
+        private final long size;
+
+        private CacheEntry(Object key, BufferedImage image, long size, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Clé d'une opération sur une image source.
+     * L'image source est comparée par identité et n'est pas retenue par le cache.
+     */
+    private static final class OperationKey {
+
+        private final WeakReference<Image> source;
+
+        private final int sourceHash;
+
+        private final String operation;
+
+        private final int width;
+
+        private final int height;
+
+        private final AffineTransform transform;
+
+        private OperationKey(Image image, ReferenceQueue<Image> queue, String operation, int width, int height, AffineTransform transform) {
+            this.source = new WeakReference<>(image, queue);
+            this.sourceHash = System.identityHashCode(image);
+            this.operation = operation;
+            this.width = width;
+            this.height = height;
+            this.transform = transform;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceHash, operation, width, height, transform);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean rslt = false;
+
+            if (obj instanceof OperationKey other) {
+                Image image = source.get();
+
+                rslt = image != null
+                       && image == other.source.get()
+                       && width == other.width
+                       && height == other.height
+                       && operation.equals(other.operation)
+                       && Objects.equals(transform, other.transform);
+            }
+            return rslt;
+        }
+    }
+}
@@ -10,17 +10,24 @@ import javax.swing.*;
 /**
  * Utilitaire de transformation sur les images.
  *
- * @version 1.03.01
+ * @version 1.07.00
  * @author Sebastien Villemain
  */
 public class ImageHelper {
 
+    /**
+     * Composant de suivi du chargement des images du toolkit.
+     */
+    private static final Component TRACKER_COMPONENT = new Component() {
+    };
+
     private ImageHelper() {
         // NE RIEN FAIRE
     }
 
     /**
      * Retourne horizontalement une image (comme un miroire).
+     * Les pixels sont copiés directement lorsque le format de l'image le permet.
      *
      * @param image
      * @return
@@ -29,16 +36,21 @@ public class ImageHelper {
         BufferedImage bufferedImage = null;
 
         if (image != null) {
-            AffineTransform transform = new AffineTransform();
-            transform.scale(-1, 1);
-            transform.translate(-1 * image.getWidth(null), 0);
-            bufferedImage = transform(image, transform);
+            if (image instanceof BufferedImage bimage && RasterHelper.isSupported(bimage)) {
+                bufferedImage = RasterHelper.transform(bimage, true, 0);
+            } else {
+                AffineTransform transform = new AffineTransform();
+                transform.scale(-1, 1);
+                transform.translate(-1 * image.getWidth(null), 0);
+                bufferedImage = transform(image, transform);
+            }
         }
         return bufferedImage;
     }
 
     /**
      * Retourne verticalement une image.
+     * Les lignes sont copiées directement lorsque le format de l'image le permet.
      *
      * @param image
      * @return
@@ -47,14 +59,117 @@ public class ImageHelper {
         BufferedImage bufferedImage = null;
 
         if (image != null) {
-            AffineTransform transform = new AffineTransform();
-            transform.scale(1, -1);
-            transform.translate(0, -1 * image.getHeight(null));
-            transform(image, transform);
+            if (image instanceof BufferedImage bimage && RasterHelper.isSupported(bimage)) {
+                // Un retournement vertical est un miroir suivi d'un demi-tour
+                bufferedImage = RasterHelper.transform(bimage, true, 2);
+            } else {
+                AffineTransform transform = new AffineTransform();
+                transform.scale(1, -1);
+                transform.translate(0, -1 * image.getHeight(null));
+                bufferedImage = transform(image, transform);
+            }
+        }
+        return bufferedImage;
+    }
+
+    /**
+     * Retourne une copie de l'image tournée par quart de tour, dans le sens des aiguilles d'une montre.
+     * Un nombre négatif tourne dans le sens inverse.
+     *
+     * @param image
+     * @param quarterTurns Nombre de quart de tour (90 degrés).
+     * @return
+     */
+    public static BufferedImage rotate(Image image, int quarterTurns) {
+        BufferedImage bufferedImage = null;
+
+        if (image != null) {
+            BufferedImage source;
+
+            if (image instanceof BufferedImage bimage && RasterHelper.isSupported(bimage)) {
+                source = bimage;
+            } else {
+                source = TiledImageScaler.toIntRasterImage(image);
+            }
+
+            bufferedImage = RasterHelper.transform(source, false, Math.floorMod(quarterTurns, 4));
         }
         return bufferedImage;
     }
 
+    /**
+     * Retourne horizontalement l'image (comme un miroire), sans copie.
+     * Attention : l'accès direct aux pixels peut désactiver l'accélération matérielle de l'image.
+     *
+     * @param image
+     */
+    public static void mirror(BufferedImage image) {
+        if (image != null) {
+            if (RasterHelper.isSupported(image)) {
+                RasterHelper.mirrorInPlace(image);
+            } else {
+                replaceContent(image, getMirrorImage(image));
+            }
+        }
+    }
+
+    /**
+     * Retourne verticalement l'image, sans copie.
+     * Attention : l'accès direct aux pixels peut désactiver l'accélération matérielle de l'image.
+     *
+     * @param image
+     */
+    public static void flip(BufferedImage image) {
+        if (image != null) {
+            if (RasterHelper.isSupported(image)) {
+                RasterHelper.flipInPlace(image);
+            } else {
+                replaceContent(image, getFlippedImage(image));
+            }
+        }
+    }
+
+    /**
+     * Attend le chargement complet d'une image du toolkit, chargée de manière asynchrone.
+     * Sans effet pour une image bufferisée.
+     *
+     * @param image
+     * @return <code>true</code> si l'image est entièrement chargée.
+     */
+    static boolean waitForImage(Image image) {
+        boolean rslt = true;
+
+        if (!(image instanceof BufferedImage)) {
+            MediaTracker tracker = new MediaTracker(TRACKER_COMPONENT);
+            tracker.addImage(image, 0);
+
+            try {
+                tracker.waitForID(0);
+                rslt = !tracker.isErrorID(0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rslt = false;
+                LoggerManager.getInstance().addError(e);
+            }
+
+            tracker.removeImage(image, 0);
+        }
+        return rslt;
+    }
+
+    /**
+     * Remplace le contenu de l'image.
+     *
+     * @param image
+     * @param content
+     */
+    private static void replaceContent(BufferedImage image, Image content) {
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(content, 0, 0, null);
+        g.dispose();
+    }
+
     /**
      * Retourne le buffer d'une image.
      *
@@ -148,6 +263,31 @@ public class ImageHelper {
         return createBufferedImage(width, height, Transparency.BITMASK);
     }
 
+    /**
+     * Créé une nouvelle image accélérée vide (image compatible stockée dans la mémoire de la carte graphique).
+     * Son contenu peut être perdu à tout moment, voir {@link AcceleratedSurface} pour une restauration automatique.
+     *
+     * @param width
+     * @param height
+     * @param transparency
+     * @return
+     */
+    public static VolatileImage createVolatileImage(int width, int height, int transparency) {
+        return ScreenManager.getGraphicsConfiguration().createCompatibleVolatileImage(width, height, transparency);
+    }
+
+    /**
+     * Créé une nouvelle surface accélérée vide avec restauration automatique de son contenu.
+     *
+     * @param width
+     * @param height
+     * @param transparency
+     * @return
+     */
+    public static AcceleratedSurface createAcceleratedSurface(int width, int height, int transparency) {
+        return new AcceleratedSurface(width, height, transparency);
+    }
+
     /**
      * Créé une nouvelle image bufferisée vide avec une taille par défaut (image compatible).
      *
@@ -169,26 +309,199 @@ public class ImageHelper {
         BufferedImage bufferedImage = null;
 
         if (image != null) {
-            int type;
+            bufferedImage = drawScaled(image, width, height, getScaleType(image), RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        }
+        return bufferedImage;
+    }
 
-            // Préparation de l'image bufferisée aux bonnes dimensions
-            if (image instanceof BufferedImage bufferedImage1) {
-                type = bufferedImage1.getType();
-            } else {
-                type = BufferedImage.TYPE_INT_ARGB;
+    /**
+     * Redimensionne une image dans une image de destination existante, à la taille de la destination.
+     * Permet de réutiliser la même image à chaque redimensionnement (voir {@link BufferedImagePool}).
+     *
+     * @param image Image à redimensionner.
+     * @param destination Image cible.
+     * @return L'image cible.
+     */
+    public static BufferedImage scale(Image image, BufferedImage destination) {
+        if (image != null && destination != null) {
+            drawScaled(image, destination, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        }
+        return destination;
+    }
+
+    /**
+     * Redimensionne une image dans une image de destination existante avec le filtre choisi.
+     * Pour une destination de type {@link BufferedImage#TYPE_INT_ARGB} ou {@link BufferedImage#TYPE_INT_RGB},
+     * le redimensionnement répété à la même taille n'alloue pratiquement plus de mémoire.
+     *
+     * @param image Image à redimensionner.
+     * @param destination Image cible.
+     * @param filter Filtre de rééchantillonnage.
+     * @return L'image cible.
+     */
+    public static BufferedImage scale(Image image, BufferedImage destination, ResampleFilter filter) {
+        return TiledImageScaler.scale(image, destination, filter);
+    }
+
+    /**
+     * Redimensionne une image pour une taille exacte avec le mode choisi.
+     * Sans mode, le redimensionnement est {@link ScaleMode#DIRECT}, comme pour {@link #scale(java.awt.Image, int, int)}.
+     *
+     * @param image Image à redimensionner.
+     * @param width Largeur de l'image cible.
+     * @param height Hauteur de l'image cible.
+     * @param mode Mode de redimensionnement ou <code>null</code>.
+     * @return Image redimensionnée.
+     */
+    public static BufferedImage scale(Image image, int width, int height, ScaleMode mode) {
+        BufferedImage bufferedImage = null;
+
+        if (image != null) {
+            switch (mode) {
+                case PROGRESSIVE -> bufferedImage = scaleProgressive(image, width, height);
+                case AREA_AVERAGING -> bufferedImage = TiledImageScaler.scale(image, width, height, ResampleFilter.BOX);
+                case null, default -> bufferedImage = scale(image, width, height);
             }
+        }
+        return bufferedImage;
+    }
 
-            bufferedImage = new BufferedImage(width, height, type);
+    /**
+     * Réduit une image par moitiés successives, puis termine par une passe bicubique.
+     *
+     * @param image
+     * @param width
+     * @param height
+     * @return
+     */
+    private static BufferedImage scaleProgressive(Image image, int width, int height) {
+        int type = getScaleType(image);
+        int currentWidth = image.getWidth(null);
+        int currentHeight = image.getHeight(null);
+        Image current = image;
+
+        // Chaque moitié est une moyenne exacte de 2x2 pixels en bilinéaire
+        while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+            currentWidth = Math.max(currentWidth / 2, width);
+            currentHeight = Math.max(currentHeight / 2, height);
+            current = drawScaled(current, currentWidth, currentHeight, type, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
 
-            // On dessine sur le graphique de l'image bufferisée
-            Graphics2D g = bufferedImage.createGraphics();
-            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-            g.drawImage(image, 0, 0, width, height, null);
-            g.dispose();
+        BufferedImage bufferedImage;
+
+        if (current != image && currentWidth == width && currentHeight == height) {
+            bufferedImage = (BufferedImage) current;
+        } else {
+            bufferedImage = drawScaled(current, width, height, type, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        }
+        return bufferedImage;
+    }
+
+    /**
+     * Retourne le type de l'image redimensionnée.
+     *
+     * @param image
+     * @return
+     */
+    private static int getScaleType(Image image) {
+        int type;
+
+        // Préparation de l'image bufferisée aux bonnes dimensions
+        if (image instanceof BufferedImage bufferedImage) {
+            type = bufferedImage.getType();
+        } else {
+            type = BufferedImage.TYPE_INT_ARGB;
         }
+        return type;
+    }
+
+    /**
+     * Dessine l'image redimensionnée dans une nouvelle image bufferisée.
+     *
+     * @param image
+     * @param width
+     * @param height
+     * @param type
+     * @param interpolation
+     * @return
+     */
+    private static BufferedImage drawScaled(Image image, int width, int height, int type, Object interpolation) {
+        BufferedImage bufferedImage = new BufferedImage(width, height, type);
+        drawScaled(image, bufferedImage, interpolation);
         return bufferedImage;
     }
 
+    /**
+     * Dessine l'image redimensionnée dans l'image de destination, en remplaçant son contenu.
+     *
+     * @param image
+     * @param destination
+     * @param interpolation
+     */
+    private static void drawScaled(Image image, BufferedImage destination, Object interpolation) {
+        // On dessine sur le graphique de l'image bufferisée
+        Graphics2D g = destination.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g.drawImage(image, 0, 0, destination.getWidth(), destination.getHeight(), null);
+        g.dispose();
+    }
+
+    /**
+     * Redimensionne une image pour une taille exacte avec le filtre de rééchantillonnage choisi.
+     * Le calcul est découpé en tuiles traitées en parallèle, adapté aux très grandes images.
+     *
+     * @param image Image à redimensionner.
+     * @param width Largeur de l'image cible.
+     * @param height Hauteur de l'image cible.
+     * @param filter Filtre de rééchantillonnage.
+     * @return Image redimensionnée.
+     */
+    public static BufferedImage scale(Image image, int width, int height, ResampleFilter filter) {
+        return TiledImageScaler.scale(image, width, height, filter);
+    }
+
+    /**
+     * Redimensionne une image pour une taille exacte avec le filtre choisi, en travaillant hors du tas Java.
+     * La copie de la source et la passe intermédiaire sont en mémoire native (voir {@link OffHeapRaster}),
+     * libérée dès la fin du calcul : seule l'image retournée, de type {@link BufferedImage#TYPE_INT_ARGB}, occupe le tas Java.
+     * Une image qui n'est pas bufferisée (image du toolkit) est d'abord convertie dans le tas Java.
+     *
+     * @param image Image à redimensionner.
+     * @param width Largeur de l'image cible.
+     * @param height Hauteur de l'image cible.
+     * @param filter Filtre de rééchantillonnage.
+     * @return Image redimensionnée.
+     */
+    public static BufferedImage scaleOffHeap(Image image, int width, int height, ResampleFilter filter) {
+        BufferedImage newImage = null;
+
+        if (image != null && width > 0 && height > 0) {
+            newImage = scaleOffHeap(image, new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), filter);
+        }
+        return newImage;
+    }
+
+    /**
+     * Redimensionne une image dans une image de destination existante avec le filtre choisi, en travaillant hors du tas Java.
+     * Avec une destination réutilisée (voir {@link BufferedImagePool}), le redimensionnement n'occupe plus le tas Java
+     * que pour une ligne de pixels.
+     *
+     * @param image Image à redimensionner.
+     * @param destination Image cible.
+     * @param filter Filtre de rééchantillonnage.
+     * @return L'image cible.
+     */
+    public static BufferedImage scaleOffHeap(Image image, BufferedImage destination, ResampleFilter filter) {
+        if (image != null && destination != null) {
+            try (OffHeapRaster source = OffHeapRaster.fromImage(image);
+                 OffHeapRaster scaled = source.scale(destination.getWidth(), destination.getHeight(), filter)) {
+                scaled.copyTo(destination);
+            }
+        }
+        return destination;
+    }
+
     /**
      * Redimensionne une image en suivant les tailles recommandées.
      *
@@ -198,6 +511,21 @@ public class ImageHelper {
      * @return
      */
     public static BufferedImage scaleMax(Image image, int widthMax, int heightMax) {
+        return scaleMax(image, widthMax, heightMax, ScaleMode.DIRECT);
+    }
+
+    /**
+     * Redimensionne une image en suivant les tailles recommandées avec le mode choisi.
+     * Pour les fortes réductions (miniatures), préférer {@link ScaleMode#PROGRESSIVE} ou {@link ScaleMode#AREA_AVERAGING}.
+     * Ces modes ne sont jamais choisis implicitement.
+     *
+     * @param image
+     * @param widthMax
+     * @param heightMax
+     * @param mode Mode de redimensionnement ou <code>null</code> pour {@link ScaleMode#DIRECT}.
+     * @return
+     */
+    public static BufferedImage scaleMax(Image image, int widthMax, int heightMax, ScaleMode mode) {
         BufferedImage newImage = null;
 
         if (image != null) {
@@ -218,7 +546,7 @@ public class ImageHelper {
                 int newWidth = (int) (width * scale);
                 int newHeight = (int) (height * scale);
 
-                newImage = scale(image, newWidth, newHeight);
+                newImage = scale(image, newWidth, newHeight, mode);
             }
         }
 
@@ -282,6 +610,134 @@ public class ImageHelper {
         return rslt;
     }
 
+    /**
+     * Vérifie si l'image contient des pixels transparent.
+     * Avec l'analyse des pixels, seule la présence effective d'un pixel non opaque est prise en compte
+     * (une image translucide dont tous les pixels sont opaques retourne <code>false</code>).
+     *
+     * @param image
+     * @param scanPixels Analyse de tous les pixels au lieu du seul modèle de couleur.
+     * @return
+     */
+    public static boolean hasAlpha(Image image, boolean scanPixels) {
+        return scanPixels ? hasTranslucentPixels(image) : hasAlpha(image);
+    }
+
+    /**
+     * Vérifie si au moins un pixel de l'image n'est pas entièrement opaque.
+     * L'analyse s'arrête au premier pixel transparent trouvé.
+     *
+     * @param image
+     * @return
+     */
+    private static boolean hasTranslucentPixels(Image image) {
+        boolean rslt = false;
+
+        if (image != null) {
+            if (image instanceof BufferedImage bimage) {
+                ColorModel cm = bimage.getColorModel();
+                WritableRaster alphaRaster = bimage.getAlphaRaster();
+
+                // Sans canal alpha, tous les pixels sont opaques
+                if (cm.hasAlpha()) {
+                    if (bimage.getType() == BufferedImage.TYPE_INT_ARGB) {
+                        rslt = hasTranslucentRows(bimage);
+                    } else if (alphaRaster != null) {
+                        rslt = hasTranslucentSamples(alphaRaster, (1 << cm.getComponentSize(cm.getNumComponents() - 1)) - 1);
+                    } else {
+                        rslt = hasTranslucentRows(copyToIntArgb(image));
+                    }
+                }
+            } else if (waitForImage(image)) {
+                // Sans PixelGrabber: dessin dans une image dont les pixels sont lisibles sous forme d'entier
+                rslt = hasTranslucentRows(copyToIntArgb(image));
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Vérifie si au moins un pixel de l'image de type {@link BufferedImage#TYPE_INT_ARGB} n'est pas entièrement opaque.
+     * Les lignes sont lues une à une dans le même tampon.
+     *
+     * @param image
+     * @return
+     */
+    private static boolean hasTranslucentRows(BufferedImage image) {
+        boolean rslt = false;
+        int width = image.getWidth();
+        int[] row = new int[width];
+
+        for (int y = 0; y < image.getHeight() && !rslt; y++) {
+            TiledImageScaler.getPixels(image, 0, y, width, 1, row);
+            rslt = PixelKernels.hasTranslucentPixels(row, 0, width);
+        }
+        return rslt;
+    }
+
+    /**
+     * Vérifie si au moins une valeur d'alpha est inférieure au maximum.
+     *
+     * @param alphaRaster
+     * @param opaqueValue
+     * @return
+     */
+    private static boolean hasTranslucentSamples(WritableRaster alphaRaster, int opaqueValue) {
+        boolean rslt = false;
+        int width = alphaRaster.getWidth();
+        int[] row = new int[width];
+
+        for (int y = 0; y < alphaRaster.getHeight() && !rslt; y++) {
+            alphaRaster.getSamples(alphaRaster.getMinX(), alphaRaster.getMinY() + y, width, 1, 0, row);
+
+            for (int i = 0; i < width; i++) {
+                if (row[i] < opaqueValue) {
+                    rslt = true;
+                    break;
+                }
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Retourne l'image sous sa forme la plus rapide à dessiner.
+     * Une image dont tous les pixels sont opaques est convertie en image compatible opaque,
+     * plus légère en mémoire et plus rapide à afficher.
+     * Une image opaque est conservée si elle est déjà compatible avec l'écran.
+     * Dans les autres cas, retourne l'image bufferisée d'origine.
+     * Une image du toolkit est attendue jusqu'à son chargement complet.
+     *
+     * @param image
+     * @return
+     */
+    public static BufferedImage toOptimizedImage(Image image) {
+        BufferedImage newImage = null;
+
+        if (image != null && waitForImage(image)) {
+            if (image instanceof BufferedImage bimage && bimage.getTransparency() == Transparency.OPAQUE && isCompatibleImage(bimage)) {
+                newImage = bimage;
+            } else if (!hasTranslucentPixels(image)) {
+                newImage = createOpaqueBufferedImage(image.getWidth(null), image.getHeight(null));
+                replaceContent(newImage, image);
+            } else {
+                newImage = toBufferedImage(image);
+            }
+        }
+        return newImage;
+    }
+
+    /**
+     * Vérifie si l'image a le même format que les images compatibles avec l'écran.
+     *
+     * @param image
+     * @return
+     */
+    private static boolean isCompatibleImage(BufferedImage image) {
+        ColorModel cm = ScreenManager.getGraphicsConfiguration().getColorModel(image.getTransparency());
+        return image.getColorModel().equals(cm) && cm.isCompatibleRaster(image.getRaster());
+    }
+
     /**
      * Vérifie si l'image contient un pixel transparent aux coordonnées précisées.
      *
@@ -302,6 +758,191 @@ public class ImageHelper {
         return rslt;
     }
 
+    /**
+     * Retourne une copie de l'image convertie en niveaux de gris.
+     *
+     * @param image
+     * @return
+     */
+    public static BufferedImage grayscale(Image image) {
+        BufferedImage newImage = null;
+
+        if (image != null) {
+            newImage = copyToIntArgb(image);
+            applyKernel(newImage, PixelKernels::grayscale);
+        }
+        return newImage;
+    }
+
+    /**
+     * Retourne une copie de l'image avec la luminosité et le contraste ajustés.
+     *
+     * @param image
+     * @param brightness Décalage de luminosité (de -1 à 1, 0 pour aucun changement).
+     * @param contrast Facteur de contraste (1 pour aucun changement).
+     * @return
+     */
+    public static BufferedImage adjustBrightnessContrast(Image image, float brightness, float contrast) {
+        BufferedImage newImage = null;
+
+        if (image != null) {
+            int[] table = PixelKernels.brightnessContrastTable(brightness, contrast);
+            newImage = copyToIntArgb(image);
+            applyKernel(newImage, (int[] row, int offset, int length) -> PixelKernels.lookup(row, offset, length, table));
+        }
+        return newImage;
+    }
+
+    /**
+     * Retourne une copie de l'image teintée.
+     *
+     * @param image
+     * @param color Couleur de la teinte.
+     * @param amount Intensité de la teinte (de 0 à 1).
+     * @return
+     */
+    public static BufferedImage tint(Image image, Color color, float amount) {
+        BufferedImage newImage = null;
+
+        if (image != null && color != null) {
+            newImage = copyToIntArgb(image);
+            applyKernel(newImage, (int[] row, int offset, int length) -> PixelKernels.tint(row, offset, length, color.getRGB(), amount));
+        }
+        return newImage;
+    }
+
+    /**
+     * Retourne une copie de l'image dont chaque pixel est entièrement opaque ou entièrement transparent.
+     *
+     * @param image
+     * @param alphaMaxLevel Seuil maximum de tolèrence (de 0 à 255) : un alpha supérieur rend le pixel opaque.
+     * @return
+     */
+    public static BufferedImage alphaThreshold(Image image, int alphaMaxLevel) {
+        BufferedImage newImage = null;
+
+        if (image != null) {
+            newImage = copyToIntArgb(image);
+            applyKernel(newImage, (int[] row, int offset, int length) -> PixelKernels.alphaThreshold(row, offset, length, alphaMaxLevel));
+        }
+        return newImage;
+    }
+
+    /**
+     * Retourne une copie de l'image avec les couleurs prémultipliées par l'alpha ({@link BufferedImage#TYPE_INT_ARGB_PRE}).
+     *
+     * @param image
+     * @return
+     */
+    public static BufferedImage toPremultiplied(Image image) {
+        BufferedImage newImage = null;
+
+        if (image != null) {
+            BufferedImage source = copyToIntArgb(image);
+            int width = source.getWidth();
+            int[] row = new int[width];
+
+            newImage = new BufferedImage(width, source.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+
+            for (int y = 0; y < source.getHeight(); y++) {
+                TiledImageScaler.getPixels(source, 0, y, width, 1, row);
+                PixelKernels.premultiply(row, 0, width);
+                TiledImageScaler.setPixels(newImage, 0, y, width, 1, row);
+            }
+        }
+        return newImage;
+    }
+
+    /**
+     * Dessine l'image source par dessus l'image de destination.
+     * Le calcul est effectué ligne par ligne sur les pixels lorsque la destination est de type {@link BufferedImage#TYPE_INT_ARGB}.
+     *
+     * @param destination Image modifiée.
+     * @param source
+     * @param x
+     * @param y
+     */
+    public static void compositeOver(BufferedImage destination, Image source, int x, int y) {
+        if (destination != null && source != null) {
+            if (destination.getType() == BufferedImage.TYPE_INT_ARGB) {
+                BufferedImage src = source instanceof BufferedImage bimage && bimage.getType() == BufferedImage.TYPE_INT_ARGB
+                                    ? bimage : copyToIntArgb(source);
+
+                // Zone commune aux deux images
+                int left = Math.max(0, x);
+                int top = Math.max(0, y);
+                int right = Math.min(destination.getWidth(), x + src.getWidth());
+                int bottom = Math.min(destination.getHeight(), y + src.getHeight());
+
+                if (right > left) {
+                    int width = right - left;
+                    int[] srcRow = new int[width];
+                    int[] dstRow = new int[width];
+
+                    for (int row = top; row < bottom; row++) {
+                        TiledImageScaler.getPixels(src, left - x, row - y, width, 1, srcRow);
+                        TiledImageScaler.getPixels(destination, left, row, width, 1, dstRow);
+                        PixelKernels.compositeOver(srcRow, 0, dstRow, 0, width);
+                        TiledImageScaler.setPixels(destination, left, row, width, 1, dstRow);
+                    }
+                }
+            } else {
+                Graphics2D g = destination.createGraphics();
+                g.drawImage(source, x, y, null);
+                g.dispose();
+            }
+        }
+    }
+
+    /**
+     * Applique un traitement à chaque ligne de l'image de type {@link BufferedImage#TYPE_INT_ARGB}.
+     *
+     * @param image
+     * @param kernel
+     */
+    private static void applyKernel(BufferedImage image, PixelKernels.RowKernel kernel) {
+        int width = image.getWidth();
+        int[] row = new int[width];
+
+        for (int y = 0; y < image.getHeight(); y++) {
+            TiledImageScaler.getPixels(image, 0, y, width, 1, row);
+            kernel.apply(row, 0, width);
+            TiledImageScaler.setPixels(image, 0, y, width, 1, row);
+        }
+    }
+
+    /**
+     * Retourne une copie de l'image dans une nouvelle image de type {@link BufferedImage#TYPE_INT_ARGB}.
+     * Une image du toolkit est attendue jusqu'à son chargement complet.
+     *
+     * @param image
+     * @return
+     */
+    private static BufferedImage copyToIntArgb(Image image) {
+        waitForImage(image);
+
+        BufferedImage newImage = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+        replaceContent(newImage, image);
+        return newImage;
+    }
+
+    /**
+     * Création du masque de transparence de l'image, pour des tests de contact répétés.
+     * Voir {@link #hasAlphaAt(java.awt.Image, int, int, int)} pour un test ponctuel.
+     *
+     * @param image
+     * @param alphaMaxLevel Seuil maximum de tolèrence (de 0 à 255).
+     * @return AlphaMask or <code>null</code>.
+     */
+    public static AlphaMask createAlphaMask(Image image, int alphaMaxLevel) {
+        AlphaMask mask = null;
+
+        if (image != null) {
+            mask = AlphaMask.create(image, alphaMaxLevel);
+        }
+        return mask;
+    }
+
     /**
      * Transforme une image.
      *
@@ -321,4 +962,25 @@ public class ImageHelper {
         }
         return newImage;
     }
+
+    /**
+     * Transforme une image dans une image de destination existante.
+     * Le contenu précédent de la destination est effacé.
+     *
+     * @param image
+     * @param transform
+     * @param destination
+     * @return L'image cible.
+     */
+    public static BufferedImage transform(Image image, AffineTransform transform, BufferedImage destination) {
+        if (image != null && destination != null) {
+            Graphics2D g = destination.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, destination.getWidth(), destination.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.drawImage(image, transform, null);
+            g.dispose();
+        }
+        return destination;
+    }
 }
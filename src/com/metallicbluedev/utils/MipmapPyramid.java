@@ -0,0 +1,132 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Pyramide d'images de résolutions décroissantes (mipmaps).
+ * Chaque niveau est la moitié du précédent, calculé une seule fois par moyenne des pixels (en parallèle).
+ * Un zoom part ensuite du niveau le plus proche : son coût dépend de la taille affichée, et non plus de la taille source.
+ * <p>
+ * Les niveaux retournés par {@link #getLevel(int)} et {@link #getNearestLevel(double)} sont partagés :
+ * ils ne doivent pas être modifiés. {@link #scale(double)} retourne toujours une nouvelle image.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class MipmapPyramid {
+
+    /**
+     * Taille minimum d'un niveau par défaut (en pixel).
+     */
+    public static final int DEFAULT_MINIMUM_SIZE = 16;
+
+    /**
+     * Les niveaux, du plus grand (image source) au plus petit.
+     */
+    private final List<BufferedImage> levels = new ArrayList<>();
+
+    /**
+     * Nouvelle pyramide jusqu'à la taille minimum par défaut.
+     *
+     * @param image
+     * @throws IllegalArgumentException Sans image.
+     */
+    public MipmapPyramid(Image image) {
+        this(image, DEFAULT_MINIMUM_SIZE);
+    }
+
+    /**
+     * Nouvelle pyramide.
+     *
+     * @param image
+     * @param minimumSize Taille minimum (largeur ou hauteur) du plus petit niveau.
+     * @throws IllegalArgumentException Sans image.
+     */
+    public MipmapPyramid(Image image, int minimumSize) {
+        if (image == null) {
+            throw new IllegalArgumentException("Image is required to build a pyramid.");
+        }
+
+        BufferedImage level = ImageHelper.toBufferedImage(image);
+        levels.add(level);
+
+        while (level.getWidth() / 2 >= Math.max(1, minimumSize) && level.getHeight() / 2 >= Math.max(1, minimumSize)) {
+            level = TiledImageScaler.scale(level, level.getWidth() / 2, level.getHeight() / 2, ResampleFilter.BOX);
+            levels.add(level);
+        }
+    }
+
+    /**
+     * Retourne le nombre de niveaux.
+     *
+     * @return
+     */
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    /**
+     * Retourne le niveau indiqué (0 pour l'image source).
+     * Le niveau est partagé : il ne doit pas être modifié.
+     *
+     * @param index
+     * @return
+     */
+    public BufferedImage getLevel(int index) {
+        return levels.get(Math.max(0, Math.min(levels.size() - 1, index)));
+    }
+
+    /**
+     * Retourne le numéro du plus petit niveau dont la taille reste supérieure ou égale à l'échelle demandée.
+     *
+     * @param scale Echelle par rapport à l'image source.
+     * @return
+     */
+    public int getLevelIndex(double scale) {
+        int index = 0;
+
+        if (scale > 0 && scale < 1) {
+            index = (int) Math.floor(Math.log(1d / scale) / Math.log(2d) + 1e-9);
+        }
+        return Math.min(levels.size() - 1, index);
+    }
+
+    /**
+     * Retourne le niveau le plus proche de l'échelle demandée, sans redimensionnement.
+     * Le niveau est partagé : il ne doit pas être modifié.
+     *
+     * @param scale Echelle par rapport à l'image source.
+     * @return
+     */
+    public BufferedImage getNearestLevel(double scale) {
+        return levels.get(getLevelIndex(scale));
+    }
+
+    /**
+     * Redimensionne l'image source avec un coefficient, en partant du niveau le plus proche.
+     * Une seule passe de redimensionnement est appliquée sur ce niveau.
+     * Si le niveau a déjà la taille demandée, une copie est retournée.
+     *
+     * @param scale Echelle par rapport à l'image source.
+     * @return Nouvelle image, modifiable par l'appelant.
+     */
+    public BufferedImage scale(double scale) {
+        BufferedImage source = levels.get(0);
+        int width = Math.max(1, (int) (source.getWidth() * scale));
+        int height = Math.max(1, (int) (source.getHeight() * scale));
+        BufferedImage level = getNearestLevel(scale);
+
+        BufferedImage newImage;
+
+        if (level.getWidth() != width || level.getHeight() != height) {
+            newImage = ImageHelper.scale(level, width, height);
+        } else {
+            ColorModel cm = level.getColorModel();
+            newImage = new BufferedImage(cm, level.copyData(null), cm.isAlphaPremultiplied(), null);
+        }
+        return newImage;
+    }
+}
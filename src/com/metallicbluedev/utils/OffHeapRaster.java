@@ -0,0 +1,425 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.lang.foreign.*;
+import java.util.stream.*;
+
+/**
+ * Image de travail hors du tas Java.
+ * Les pixels (ARGB non prémultipliés, un entier par pixel) sont stockés dans un {@link MemorySegment}
+ * dont la durée de vie est explicite: la mémoire est libérée à la fermeture, sans passer par le ramasse-miettes.
+ * <p>
+ * Les traitements (redimensionnement, miroir, filtres) travaillent directement sur la mémoire native.
+ * La conversion en {@link BufferedImage} n'est utile qu'au moment de l'affichage.
+ * <p>
+ * Les grandes images sont traitées en parallèle, uniquement si leur zone mémoire est partagée entre processus
+ * ({@link Arena#ofShared()}, {@link Arena#ofAuto()}, {@link Arena#global()}).
+ * Une zone fournie par l'appelant est considérée comme confinée ({@link Arena#ofConfined()}) sauf indication contraire:
+ * l'image est alors traitée séquentiellement, par son processus propriétaire.
+ *
+ * @version 1.00.03
+ * @author Sebastien Villemain
+ */
+public class OffHeapRaster implements AutoCloseable {
+
+    /**
+     * Nombre de pixels en dessous duquel le traitement n'est pas parallélisé.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Zone mémoire propriétaire des pixels.
+     */
+    private final Arena arena;
+
+    /**
+     * Fermeture de la zone mémoire avec l'image.
+     */
+    private final boolean ownArena;
+
+    /**
+     * Les pixels.
+     */
+    private final MemorySegment pixels;
+
+    /**
+     * Traitement parallèle possible (zone mémoire accessible depuis les autres processus).
+     */
+    private final boolean parallel;
+
+    private final int width;
+
+    private final int height;
+
+    private OffHeapRaster(Arena arena, boolean ownArena, boolean parallel, int width, int height) {
+        this.arena = arena;
+        this.ownArena = ownArena;
+        this.parallel = parallel;
+        this.width = width;
+        this.height = height;
+
+        pixels = arena.allocate((long) width * height * Integer.BYTES, Integer.BYTES);
+    }
+
+    /**
+     * Nouvelle image transparente, libérée à la fermeture.
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public static OffHeapRaster allocate(int width, int height) {
+        return new OffHeapRaster(Arena.ofShared(), true, true, width, height);
+    }
+
+    /**
+     * Nouvelle image transparente dans la zone mémoire de l'appelant, traitée séquentiellement.
+     * L'image est libérée à la fermeture de la zone mémoire.
+     * Avec une zone confinée, l'image n'est utilisable que par le processus propriétaire.
+     *
+     * @param arena
+     * @param width
+     * @param height
+     * @return
+     */
+    public static OffHeapRaster allocate(Arena arena, int width, int height) {
+        return allocate(arena, width, height, false);
+    }
+
+    /**
+     * Nouvelle image transparente dans la zone mémoire de l'appelant.
+     * L'image est libérée à la fermeture de la zone mémoire.
+     * Le traitement parallèle ne doit être demandé que pour une zone partagée entre processus:
+     * une zone confinée refuse l'accès aux processus de traitement.
+     *
+     * @param arena
+     * @param width
+     * @param height
+     * @param parallel Traitement parallèle des grandes images (zone partagée uniquement).
+     * @return
+     */
+    public static OffHeapRaster allocate(Arena arena, int width, int height, boolean parallel) {
+        return new OffHeapRaster(arena, false, parallel, width, height);
+    }
+
+    /**
+     * Copie d'une image hors du tas Java.
+     * Les images de type {@link BufferedImage} sont copiées ligne par ligne, sans copie intermédiaire complète.
+     *
+     * @param image
+     * @return
+     */
+    public static OffHeapRaster fromImage(Image image) {
+        BufferedImage bufferedImage = image instanceof BufferedImage b ? b : TiledImageScaler.toIntRasterImage(image);
+        OffHeapRaster raster = allocate(bufferedImage.getWidth(), bufferedImage.getHeight());
+        raster.setContent(bufferedImage);
+        return raster;
+    }
+
+    /**
+     * Retourne la largeur de l'image.
+     *
+     * @return
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retourne la hauteur de l'image.
+     *
+     * @return
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retourne la taille de l'image en mémoire (en octet).
+     *
+     * @return
+     */
+    public long getSizeInBytes() {
+        return pixels.byteSize();
+    }
+
+    /**
+     * Retourne un pixel (ARGB).
+     *
+     * @param x
+     * @param y
+     * @return
+     */
+    public int getRGB(int x, int y) {
+        return pixels.getAtIndex(ValueLayout.JAVA_INT, (long) y * width + x);
+    }
+
+    /**
+     * Modifie un pixel (ARGB).
+     *
+     * @param x
+     * @param y
+     * @param argb
+     */
+    public void setRGB(int x, int y, int argb) {
+        pixels.setAtIndex(ValueLayout.JAVA_INT, (long) y * width + x, argb);
+    }
+
+    /**
+     * Remplace le contenu par celui de l'image de même taille.
+     * L'image est lue ligne par ligne et reste éligible à l'accélération matérielle.
+     *
+     * @param image
+     */
+    public void setContent(BufferedImage image) {
+        checkSize(image);
+
+        boolean direct = image.getType() == BufferedImage.TYPE_INT_ARGB;
+        int[] row = new int[width];
+
+        for (int y = 0; y < height; y++) {
+            if (direct) {
+                TiledImageScaler.getPixels(image, 0, y, width, 1, row);
+            } else {
+                image.getRGB(0, y, width, 1, row, 0, width);
+            }
+
+            MemorySegment.copy(row, 0, pixels, ValueLayout.JAVA_INT, (long) y * width * Integer.BYTES, width);
+        }
+    }
+
+    /**
+     * Copie le contenu dans l'image de même taille.
+     * Permet de réutiliser la même image d'affichage.
+     * L'image est écrite ligne par ligne et reste éligible à l'accélération matérielle.
+     *
+     * @param image
+     */
+    public void copyTo(BufferedImage image) {
+        checkSize(image);
+
+        boolean direct = image.getType() == BufferedImage.TYPE_INT_ARGB;
+        int[] row = new int[width];
+
+        for (int y = 0; y < height; y++) {
+            MemorySegment.copy(pixels, ValueLayout.JAVA_INT, (long) y * width * Integer.BYTES, row, 0, width);
+
+            if (direct) {
+                TiledImageScaler.setPixels(image, 0, y, width, 1, row);
+            } else {
+                image.setRGB(0, y, width, 1, row, 0, width);
+            }
+        }
+    }
+
+    /**
+     * Retourne une copie dans le tas Java, pour l'affichage.
+     *
+     * @return
+     */
+    public BufferedImage toBufferedImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        copyTo(image);
+        return image;
+    }
+
+    /**
+     * Redimensionne l'image pour une taille exacte, dans une nouvelle image hors du tas Java.
+     * Le rééchantillonnage est séparable et se fait en couleurs prémultipliées.
+     * La nouvelle image est propriétaire de sa zone mémoire (partagée), à fermer par l'appelant.
+     *
+     * @param newWidth
+     * @param newHeight
+     * @param filter
+     * @return
+     */
+    public OffHeapRaster scale(int newWidth, int newHeight, ResampleFilter filter) {
+        TiledImageScaler.Contributors xc = TiledImageScaler.getContributors(width, newWidth, filter);
+        TiledImageScaler.Contributors yc = TiledImageScaler.getContributors(height, newHeight, filter);
+        OffHeapRaster newRaster = allocate(newWidth, newHeight);
+
+        // Passe horizontale dans une zone temporaire: composantes (a, r, g, b) prémultipliées
+        try (Arena temporary = Arena.ofShared()) {
+            MemorySegment buffer = temporary.allocate((long) newWidth * height * 4 * Float.BYTES, Float.BYTES);
+
+            rows(height, (long) newWidth * height).forEach((int sy) -> {
+                long srcRow = (long) sy * width;
+                long bufferRow = (long) sy * newWidth * 4;
+
+                for (int dx = 0; dx < newWidth; dx++) {
+                    int offset = dx * xc.stride;
+                    float a = 0f, r = 0f, g = 0f, b = 0f;
+
+                    for (int i = 0; i < xc.count[dx]; i++) {
+                        int p = pixels.getAtIndex(ValueLayout.JAVA_INT, srcRow + xc.start[dx] + i);
+                        float pa = (p >>> 24) * xc.weights[offset + i];
+                        a += pa;
+                        r += ((p >> 16) & 0xFF) * pa;
+                        g += ((p >> 8) & 0xFF) * pa;
+                        b += (p & 0xFF) * pa;
+                    }
+
+                    long index = bufferRow + dx * 4L;
+                    buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index, a);
+                    buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index + 1, r);
+                    buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index + 2, g);
+                    buffer.setAtIndex(ValueLayout.JAVA_FLOAT, index + 3, b);
+                }
+            });
+
+            // Passe verticale vers l'image de destination
+            newRaster.rows(newHeight, (long) newWidth * newHeight).forEach((int dy) -> {
+                int offset = dy * yc.stride;
+                long dstRow = (long) dy * newWidth;
+
+                for (int dx = 0; dx < newWidth; dx++) {
+                    float a = 0f, r = 0f, g = 0f, b = 0f;
+
+                    for (int i = 0; i < yc.count[dy]; i++) {
+                        long index = ((long) (yc.start[dy] + i) * newWidth + dx) * 4;
+                        float w = yc.weights[offset + i];
+                        a += buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index) * w;
+                        r += buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index + 1) * w;
+                        g += buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index + 2) * w;
+                        b += buffer.getAtIndex(ValueLayout.JAVA_FLOAT, index + 3) * w;
+                    }
+
+                    newRaster.pixels.setAtIndex(ValueLayout.JAVA_INT, dstRow + dx, TiledImageScaler.toPixel(a, r, g, b));
+                }
+            });
+        } catch (RuntimeException | Error ex) {
+            newRaster.close();
+            throw ex;
+        }
+        return newRaster;
+    }
+
+    /**
+     * Redimensionne l'image en suivant les tailles recommandées.
+     *
+     * @param widthMax
+     * @param heightMax
+     * @param filter
+     * @return
+     */
+    public OffHeapRaster scaleMax(int widthMax, int heightMax, ResampleFilter filter) {
+        double scale = Math.min((double) widthMax / width, (double) heightMax / height);
+        return scale(Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale)), filter);
+    }
+
+    /**
+     * Effet miroir horizontal, sur place.
+     */
+    public void mirror() {
+        rows(height, (long) width * height).forEach((int y) -> {
+            long left = (long) y * width;
+            long right = left + width - 1;
+
+            while (left < right) {
+                int pixel = pixels.getAtIndex(ValueLayout.JAVA_INT, left);
+                pixels.setAtIndex(ValueLayout.JAVA_INT, left++, pixels.getAtIndex(ValueLayout.JAVA_INT, right));
+                pixels.setAtIndex(ValueLayout.JAVA_INT, right--, pixel);
+            }
+        });
+    }
+
+    /**
+     * Retournement vertical, sur place.
+     */
+    public void flip() {
+        long rowSize = (long) width * Integer.BYTES;
+
+        try (Arena temporary = Arena.ofConfined()) {
+            MemorySegment row = temporary.allocate(rowSize, Integer.BYTES);
+
+            for (int top = 0, bottom = height - 1; top < bottom; top++, bottom--) {
+                MemorySegment.copy(pixels, top * rowSize, row, 0, rowSize);
+                MemorySegment.copy(pixels, bottom * rowSize, pixels, top * rowSize, rowSize);
+                MemorySegment.copy(row, 0, pixels, bottom * rowSize, rowSize);
+            }
+        }
+    }
+
+    /**
+     * Conversion en niveaux de gris, sur place.
+     */
+    public void grayscale() {
+        applyKernel(PixelKernels::grayscale);
+    }
+
+    /**
+     * Ajuste la luminosité et le contraste, sur place.
+     *
+     * @param brightness Décalage de luminosité (-1 à 1).
+     * @param contrast Coefficient de contraste (1 pour inchangé).
+     */
+    public void adjustBrightnessContrast(float brightness, float contrast) {
+        int[] table = PixelKernels.brightnessContrastTable(brightness, contrast);
+        applyKernel((int[] row, int offset, int length) -> PixelKernels.lookup(row, offset, length, table));
+    }
+
+    /**
+     * Teinte l'image, sur place.
+     *
+     * @param color
+     * @param amount Intensité de la teinte (0 à 1).
+     */
+    public void tint(Color color, float amount) {
+        applyKernel((int[] row, int offset, int length) -> PixelKernels.tint(row, offset, length, color.getRGB(), amount));
+    }
+
+    /**
+     * Libère la mémoire de l'image, si elle est propriétaire de sa zone mémoire.
+     */
+    @Override
+    public void close() {
+        if (ownArena) {
+            arena.close();
+        }
+    }
+
+    /**
+     * Vérifie que l'image a la même taille.
+     *
+     * @param image
+     */
+    private void checkSize(BufferedImage image) {
+        if (image.getWidth() != width || image.getHeight() != height) {
+            throw new IllegalArgumentException("Image size " + image.getWidth() + "x" + image.getHeight() + " does not match " + width + "x" + height + ".");
+        }
+    }
+
+    /**
+     * Applique un traitement ligne par ligne.
+     * Chaque ligne transite par un tampon du tas Java de la taille d'une ligne.
+     *
+     * @param kernel
+     */
+    private void applyKernel(PixelKernels.RowKernel kernel) {
+        long rowSize = (long) width * Integer.BYTES;
+        int[] row = new int[width];
+
+        for (int y = 0; y < height; y++) {
+            MemorySegment.copy(pixels, ValueLayout.JAVA_INT, y * rowSize, row, 0, width);
+            kernel.apply(row, 0, width);
+            MemorySegment.copy(row, 0, pixels, ValueLayout.JAVA_INT, y * rowSize, width);
+        }
+    }
+
+    /**
+     * Retourne les lignes à traiter, en parallèle pour les grandes images dont la zone mémoire est partagée.
+     *
+     * @param rowCount
+     * @param pixelCount
+     * @return
+     */
+    private IntStream rows(int rowCount, long pixelCount) {
+        IntStream rows = IntStream.range(0, rowCount);
+
+        if (parallel && pixelCount >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        return rows;
+    }
+}
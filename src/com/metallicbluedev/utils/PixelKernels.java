@@ -0,0 +1,323 @@
+package com.metallicbluedev.utils;
+
+import com.metallicbluedev.logger.*;
+
+/**
+ * Traitements par pixel sur les tableaux de pixels ARGB (un entier par pixel, voir {@link java.awt.image.BufferedImage#TYPE_INT_ARGB}).
+ * <p>
+ * Lorsque le module <code>jdk.incubator.vector</code> est chargé (option <code>--add-modules jdk.incubator.vector</code>),
+ * les traitements par calcul ({@link #premultiply(int[], int, int)}, {@link #unpremultiply(int[], int, int)},
+ * {@link #compositeOver(int[], int, int[], int, int)}, {@link #grayscale(int[], int, int)},
+ * {@link #tint(int[], int, int, int, float)}, {@link #hasTranslucentPixels(int[], int, int)} et
+ * {@link #alphaThreshold(int[], int, int, int)}) utilisent l'API Vector.
+ * Sinon, et pour les derniers pixels qui ne remplissent pas un vecteur, les boucles scalaires sont utilisées.
+ * Le résultat est identique dans les deux cas.
+ * L'implémentation vectorielle (compilée à part, voir {@link VectorKernels}) n'est chargée que si le module est présent.
+ * <p>
+ * Les traitements par table ({@link #lookup(int[], int, int, int[])}) restent scalaires :
+ * une lecture indexée par composante n'a pas d'équivalent rapide en vecteur.
+ * La table est à créer une seule fois par image (voir {@link #brightnessContrastTable(float, float)}).
+ *
+ * @version 1.02.01
+ * @author Sebastien Villemain
+ */
+public class PixelKernels {
+
+    /**
+     * Inverse de l'alpha en virgule fixe (16 bits), pour éviter les divisions.
+     */
+    private static final int[] ALPHA_RECIPROCALS = createAlphaReciprocals();
+
+    /**
+     * Nom de l'implémentation vectorielle, chargée par son nom.
+     */
+    private static final String VECTOR_KERNELS_CLASS = "com.metallicbluedev.utils.VectorPixelKernels";
+
+    /**
+     * Traitements utilisant l'API Vector ou <code>null</code>.
+     */
+    private static final VectorKernels VECTOR = loadVectorKernels();
+
+    /**
+     * Utilisation de l'API Vector.
+     */
+    private static final boolean VECTOR_ENABLED = VECTOR != null;
+
+    private PixelKernels() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Chargement des traitements utilisant l'API Vector.
+     * La classe utilisant l'API n'est chargée que si le module est présent.
+     *
+     * @return VectorKernels or <code>null</code>.
+     */
+    private static VectorKernels loadVectorKernels() {
+        VectorKernels rslt = null;
+
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                VectorKernels kernels = (VectorKernels) Class.forName(VECTOR_KERNELS_CLASS).getDeclaredConstructor().newInstance();
+
+                if (kernels.isSupported()) {
+                    rslt = kernels;
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LoggerManager.getInstance().addDebug("Vector API unavailable: " + e.getMessage());
+            }
+        }
+        return rslt;
+    }
+
+    /**
+     * Vérifie si les traitements utilisent l'API Vector.
+     *
+     * @return
+     */
+    public static boolean isVectorEnabled() {
+        return VECTOR_ENABLED;
+    }
+
+    /**
+     * Création de la table des inverses de l'alpha.
+     *
+     * @return
+     */
+    private static int[] createAlphaReciprocals() {
+        int[] reciprocals = new int[256];
+
+        for (int a = 1; a < 256; a++) {
+            reciprocals[a] = (255 << 16) / a;
+        }
+        return reciprocals;
+    }
+
+    /**
+     * Division par 255 arrondie, pour une valeur de 0 à 255 * 255.
+     *
+     * @param value
+     * @return
+     */
+    private static int div255(int value) {
+        return ((value + 128) * 257) >>> 16;
+    }
+
+    /**
+     * Multiplie les composantes de couleur par l'alpha (conversion vers ARGB prémultiplié).
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     */
+    public static void premultiply(int[] pixels, int offset, int length) {
+        int start = VECTOR_ENABLED ? offset + VECTOR.premultiply(pixels, offset, length) : offset;
+
+        for (int i = start; i < offset + length; i++) {
+            int p = pixels[i];
+            int a = p >>> 24;
+            int r = div255(((p >> 16) & 0xff) * a);
+            int g = div255(((p >> 8) & 0xff) * a);
+            int b = div255((p & 0xff) * a);
+            pixels[i] = (a << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Divise les composantes de couleur par l'alpha (conversion depuis ARGB prémultiplié).
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     */
+    public static void unpremultiply(int[] pixels, int offset, int length) {
+        int start = VECTOR_ENABLED ? offset + VECTOR.unpremultiply(pixels, offset, length) : offset;
+
+        for (int i = start; i < offset + length; i++) {
+            int p = pixels[i];
+            int a = p >>> 24;
+            int inv = ALPHA_RECIPROCALS[a];
+            int r = Math.min(255, (((p >> 16) & 0xff) * inv + 0x8000) >>> 16);
+            int g = Math.min(255, (((p >> 8) & 0xff) * inv + 0x8000) >>> 16);
+            int b = Math.min(255, ((p & 0xff) * inv + 0x8000) >>> 16);
+            pixels[i] = (a << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Dessine les pixels source par dessus les pixels de destination (règle "source over").
+     *
+     * @param src Pixels ARGB source.
+     * @param srcOffset
+     * @param dst Pixels ARGB de destination, modifiés.
+     * @param dstOffset
+     * @param length
+     */
+    public static void compositeOver(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+        int start = VECTOR_ENABLED ? VECTOR.compositeOver(src, srcOffset, dst, dstOffset, length) : 0;
+
+        for (int i = start; i < length; i++) {
+            int s = src[srcOffset + i];
+            int sa = s >>> 24;
+
+            if (sa == 255) {
+                dst[dstOffset + i] = s;
+            } else if (sa > 0) {
+                int d = dst[dstOffset + i];
+                int da = div255((d >>> 24) * (255 - sa));
+                int oa = sa + da;
+                int half = oa >> 1;
+                int r = ((((s >> 16) & 0xff) * sa + ((d >> 16) & 0xff) * da) + half) / oa;
+                int g = ((((s >> 8) & 0xff) * sa + ((d >> 8) & 0xff) * da) + half) / oa;
+                int b = (((s & 0xff) * sa + (d & 0xff) * da) + half) / oa;
+                dst[dstOffset + i] = (oa << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    /**
+     * Ajuste la luminosité et le contraste des couleurs (l'alpha est conservé).
+     * La table de correspondance est recréée à chaque appel :
+     * pour traiter une image ligne par ligne, utiliser {@link #brightnessContrastTable(float, float)} et {@link #lookup(int[], int, int, int[])}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param brightness Décalage de luminosité (de -1 à 1, 0 pour aucun changement).
+     * @param contrast Facteur de contraste (1 pour aucun changement).
+     */
+    public static void brightnessContrast(int[] pixels, int offset, int length, float brightness, float contrast) {
+        lookup(pixels, offset, length, brightnessContrastTable(brightness, contrast));
+    }
+
+    /**
+     * Création de la table de correspondance de la luminosité et du contraste, pour {@link #lookup(int[], int, int, int[])}.
+     *
+     * @param brightness Décalage de luminosité (de -1 à 1, 0 pour aucun changement).
+     * @param contrast Facteur de contraste (1 pour aucun changement).
+     * @return Table de 256 valeurs (de 0 à 255).
+     */
+    public static int[] brightnessContrastTable(float brightness, float contrast) {
+        int[] table = new int[256];
+
+        for (int c = 0; c < 256; c++) {
+            table[c] = Math.max(0, Math.min(255, Math.round((c - 128) * contrast + 128 + brightness * 255)));
+        }
+        return table;
+    }
+
+    /**
+     * Remplace chaque composante de couleur par sa valeur dans la table (l'alpha est conservé).
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param table Table de 256 valeurs (de 0 à 255).
+     */
+    public static void lookup(int[] pixels, int offset, int length, int[] table) {
+        for (int i = offset; i < offset + length; i++) {
+            int p = pixels[i];
+            pixels[i] = (p & 0xff000000) | (table[(p >> 16) & 0xff] << 16) | (table[(p >> 8) & 0xff] << 8) | table[p & 0xff];
+        }
+    }
+
+    /**
+     * Convertit les couleurs en niveaux de gris (l'alpha est conservé).
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     */
+    public static void grayscale(int[] pixels, int offset, int length) {
+        int start = VECTOR_ENABLED ? offset + VECTOR.grayscale(pixels, offset, length) : offset;
+
+        for (int i = start; i < offset + length; i++) {
+            int p = pixels[i];
+            // Luminance (BT.601) en virgule fixe
+            int l = (((p >> 16) & 0xff) * 77 + ((p >> 8) & 0xff) * 150 + (p & 0xff) * 29) >> 8;
+            pixels[i] = (p & 0xff000000) | (l << 16) | (l << 8) | l;
+        }
+    }
+
+    /**
+     * Teinte les couleurs vers une couleur (l'alpha est conservé).
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param rgb Couleur de la teinte.
+     * @param amount Intensité de la teinte (de 0 à 1).
+     */
+    public static void tint(int[] pixels, int offset, int length, int rgb, float amount) {
+        int k = Math.max(0, Math.min(256, Math.round(amount * 256)));
+        int tr = ((rgb >> 16) & 0xff) * k;
+        int tg = ((rgb >> 8) & 0xff) * k;
+        int tb = (rgb & 0xff) * k;
+        int keep = 256 - k;
+        int start = VECTOR_ENABLED ? offset + VECTOR.tint(pixels, offset, length, tr, tg, tb, keep) : offset;
+
+        for (int i = start; i < offset + length; i++) {
+            int p = pixels[i];
+            int r = (((p >> 16) & 0xff) * keep + tr) >> 8;
+            int g = (((p >> 8) & 0xff) * keep + tg) >> 8;
+            int b = ((p & 0xff) * keep + tb) >> 8;
+            pixels[i] = (p & 0xff000000) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Vérifie si au moins un pixel n'est pas entièrement opaque.
+     * Les pixels sont parcourus par blocs, et le parcours s'arrête au premier bloc contenant un pixel transparent.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return
+     */
+    public static boolean hasTranslucentPixels(int[] pixels, int offset, int length) {
+        boolean rslt = false;
+        int end = offset + length;
+        int first = VECTOR_ENABLED ? offset + VECTOR.countOpaquePixels(pixels, offset, length) : offset;
+
+        for (int start = first; start < end && !rslt; start += 256) {
+            int blockEnd = Math.min(end, start + 256);
+            int alpha = 0xff000000;
+
+            // Le ET logique de tous les alphas reste à 0xff uniquement si tous les pixels sont opaques
+            for (int i = start; i < blockEnd; i++) {
+                alpha &= pixels[i];
+            }
+
+            rslt = (alpha & 0xff000000) != 0xff000000;
+        }
+        return rslt;
+    }
+
+    /**
+     * Rend chaque pixel entièrement opaque ou entièrement transparent suivant le seuil d'alpha.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param alphaMaxLevel Seuil maximum de tolèrence (de 0 à 255) : un alpha supérieur rend le pixel opaque.
+     */
+    public static void alphaThreshold(int[] pixels, int offset, int length, int alphaMaxLevel) {
+        int start = VECTOR_ENABLED ? offset + VECTOR.alphaThreshold(pixels, offset, length, alphaMaxLevel) : offset;
+
+        for (int i = start; i < offset + length; i++) {
+            int p = pixels[i];
+            // -1 (tous les bits) si opaque, 0 sinon
+            int mask = (alphaMaxLevel - (p >>> 24)) >> 31;
+            pixels[i] = (p & 0x00ffffff) | (mask & 0xff000000);
+        }
+    }
+
+    /**
+     * Traitement d'une ligne de pixels.
+     */
+    @FunctionalInterface
+    interface RowKernel {
+
+        void apply(int[] pixels, int offset, int length);
+    }
+}
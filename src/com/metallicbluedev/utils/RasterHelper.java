@@ -0,0 +1,294 @@
+package com.metallicbluedev.utils;
+
+import java.awt.image.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Transformations directes sur les pixels d'une image (miroir, retournement, rotation par quart de tour).
+ * Les lignes et pixels sont copiés directement dans le tableau de données de l'image,
+ * sans passer par le rendu Java2D.
+ * <p>
+ * Supporte les images dont chaque pixel est un entier (types INT)
+ * ou une suite d'octets entrelacés (types BYTE à composantes).
+ * <p>
+ * Contrairement au reste du paquet (voir {@link TiledImageScaler#getPixels(java.awt.image.BufferedImage, int, int, int, int, int[])}),
+ * le tableau de données est obtenu via {@link DataBufferInt#getData()} ou {@link DataBufferByte#getData()} :
+ * un simple mélange de mémoire ne gagne rien à passer par le {@link Raster}.
+ * En contrepartie, Java2D n'accélère plus les images concernées (source et destination),
+ * leur dessin à l'écran n'est plus mis en cache dans la mémoire vidéo.
+ * Pour une image dessinée souvent, dessiner le résultat dans une image compatible avec l'écran.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+class RasterHelper {
+
+    /**
+     * Nombre de pixels à partir duquel le traitement est parallélisé.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private RasterHelper() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Vérifie si les pixels de l'image sont directement accessibles.
+     *
+     * @param image
+     * @return
+     */
+    static boolean isSupported(BufferedImage image) {
+        return PixelData.of(image) != null;
+    }
+
+    /**
+     * Retourne une copie de l'image transformée.
+     * Le nombre de quart de tour est appliqué dans le sens des aiguilles d'une montre, après le miroir éventuel.
+     * L'image doit être supportée (voir {@link #isSupported(java.awt.image.BufferedImage)}).
+     *
+     * @param image
+     * @param mirror Miroir horizontal.
+     * @param quarterTurns Nombre de quart de tour (de 0 à 3).
+     * @return
+     */
+    static BufferedImage transform(BufferedImage image, boolean mirror, int quarterTurns) {
+        PixelData src = PixelData.of(image);
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = (quarterTurns & 1) == 1;
+        int dstWidth = swap ? height : width;
+        int dstHeight = swap ? width : height;
+
+        ColorModel cm = image.getColorModel();
+        BufferedImage newImage = new BufferedImage(cm, image.getRaster().createCompatibleWritableRaster(dstWidth, dstHeight), cm.isAlphaPremultiplied(), null);
+        PixelData dst = PixelData.of(newImage);
+
+        rows(dstHeight, (long) width * height, (int dy) -> {
+            // Position du premier pixel source de la ligne et déplacement entre deux pixels (en pixel source)
+            int x;
+            int y;
+            int stepX;
+            int stepY;
+
+            switch (quarterTurns) {
+                case 1 -> {
+                    x = dy;
+                    y = height - 1;
+                    stepX = 0;
+                    stepY = -1;
+                }
+                case 2 -> {
+                    x = width - 1;
+                    y = height - 1 - dy;
+                    stepX = -1;
+                    stepY = 0;
+                }
+                case 3 -> {
+                    x = width - 1 - dy;
+                    y = 0;
+                    stepX = 0;
+                    stepY = 1;
+                }
+                default -> {
+                    x = 0;
+                    y = dy;
+                    stepX = 1;
+                    stepY = 0;
+                }
+            }
+
+            if (mirror) {
+                // Le miroir est appliqué sur la source avant la rotation
+                x = width - 1 - x;
+                stepX = -stepX;
+            }
+
+            src.copyRow(x, y, stepX, stepY, dst, dy, dstWidth);
+        });
+        return newImage;
+    }
+
+    /**
+     * Applique un miroir horizontal sur l'image, sans copie.
+     *
+     * @param image
+     */
+    static void mirrorInPlace(BufferedImage image) {
+        PixelData data = PixelData.of(image);
+        int width = image.getWidth();
+
+        rows(image.getHeight(), (long) width * image.getHeight(), (int y) -> {
+            for (int left = 0, right = width - 1; left < right; left++, right--) {
+                data.swap(left, y, right, y);
+            }
+        });
+    }
+
+    /**
+     * Applique un retournement vertical sur l'image, sans copie.
+     *
+     * @param image
+     */
+    static void flipInPlace(BufferedImage image) {
+        PixelData data = PixelData.of(image);
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        rows(height / 2, (long) width * height, (int y) -> {
+            for (int x = 0; x < width; x++) {
+                data.swap(x, y, x, height - 1 - y);
+            }
+        });
+    }
+
+    /**
+     * Traite chaque ligne, en parallèle pour les grandes images.
+     *
+     * @param count
+     * @param pixels
+     * @param action
+     */
+    private static void rows(int count, long pixels, IntConsumer action) {
+        IntStream stream = IntStream.range(0, count);
+
+        if (pixels >= PARALLEL_THRESHOLD) {
+            stream = stream.parallel();
+        }
+
+        stream.forEach(action);
+    }
+
+    /**
+     * Accès direct aux pixels d'une image.
+     *
+     * @param ints Données des images de type INT, sinon <code>null</code>.
+     * @param bytes Données des images de type BYTE, sinon <code>null</code>.
+     * @param offset Position du pixel (0, 0).
+     * @param scanline Nombre d'élément par ligne.
+     * @param pixelStride Nombre d'élément par pixel.
+     */
+    private record PixelData(int[] ints, byte[] bytes, int offset, int scanline, int pixelStride) {
+
+        /**
+         * Retourne l'accès aux pixels de l'image.
+         * Si l'image n'est pas supportée, retourne <code>null</code>.
+         *
+         * @param image
+         * @return PixelData or <code>null</code>.
+         */
+        static PixelData of(BufferedImage image) {
+            PixelData data = null;
+            WritableRaster raster = image.getRaster();
+            DataBuffer buffer = raster.getDataBuffer();
+            int tx = raster.getSampleModelTranslateX();
+            int ty = raster.getSampleModelTranslateY();
+
+            if (buffer.getNumBanks() == 1) {
+                if (buffer instanceof DataBufferInt intBuffer
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel) {
+                    int scanline = sampleModel.getScanlineStride();
+                    data = new PixelData(intBuffer.getData(), null, buffer.getOffset() - ty * scanline - tx, scanline, 1);
+                } else if (buffer instanceof DataBufferByte byteBuffer
+                           && raster.getSampleModel() instanceof PixelInterleavedSampleModel sampleModel
+                           && isInterleaved(sampleModel)) {
+                    int scanline = sampleModel.getScanlineStride();
+                    int pixelStride = sampleModel.getPixelStride();
+                    data = new PixelData(null, byteBuffer.getData(), buffer.getOffset() - ty * scanline - tx * pixelStride, scanline, pixelStride);
+                }
+            }
+            return data;
+        }
+
+        /**
+         * Vérifie que toutes les composantes d'un pixel sont contenues dans son pas.
+         *
+         * @param sampleModel
+         * @return
+         */
+        private static boolean isInterleaved(PixelInterleavedSampleModel sampleModel) {
+            boolean rslt = true;
+
+            for (int bandOffset : sampleModel.getBandOffsets()) {
+                if (bandOffset < 0 || bandOffset >= sampleModel.getPixelStride()) {
+                    rslt = false;
+                    break;
+                }
+            }
+            return rslt;
+        }
+
+        /**
+         * Retourne la position du pixel.
+         *
+         * @param x
+         * @param y
+         * @return
+         */
+        private int indexOf(int x, int y) {
+            return offset + y * scanline + x * pixelStride;
+        }
+
+        /**
+         * Copie une suite de pixels source vers une ligne de destination.
+         *
+         * @param x Premier pixel source.
+         * @param y Premier pixel source.
+         * @param stepX Déplacement horizontal entre deux pixels source.
+         * @param stepY Déplacement vertical entre deux pixels source.
+         * @param dst
+         * @param dstRow
+         * @param count
+         */
+        void copyRow(int x, int y, int stepX, int stepY, PixelData dst, int dstRow, int count) {
+            int srcIndex = indexOf(x, y);
+            int srcStep = stepY * scanline + stepX * pixelStride;
+            int dstIndex = dst.indexOf(0, dstRow);
+
+            if (srcStep == pixelStride) {
+                // Ligne contigüe: simple copie mémoire
+                System.arraycopy(ints != null ? ints : bytes, srcIndex, ints != null ? dst.ints : dst.bytes, dstIndex, count * pixelStride);
+            } else if (ints != null) {
+                int[] dstInts = dst.ints;
+
+                for (int i = 0; i < count; i++, srcIndex += srcStep) {
+                    dstInts[dstIndex + i] = ints[srcIndex];
+                }
+            } else {
+                byte[] dstBytes = dst.bytes;
+
+                for (int i = 0; i < count; i++, srcIndex += srcStep, dstIndex += pixelStride) {
+                    for (int b = 0; b < pixelStride; b++) {
+                        dstBytes[dstIndex + b] = bytes[srcIndex + b];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Echange deux pixels.
+         *
+         * @param x1
+         * @param y1
+         * @param x2
+         * @param y2
+         */
+        void swap(int x1, int y1, int x2, int y2) {
+            int i1 = indexOf(x1, y1);
+            int i2 = indexOf(x2, y2);
+
+            if (ints != null) {
+                int tmp = ints[i1];
+                ints[i1] = ints[i2];
+                ints[i2] = tmp;
+            } else {
+                for (int b = 0; b < pixelStride; b++) {
+                    byte tmp = bytes[i1 + b];
+                    bytes[i1 + b] = bytes[i2 + b];
+                    bytes[i2 + b] = tmp;
+                }
+            }
+        }
+    }
+}
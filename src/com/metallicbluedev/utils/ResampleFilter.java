@@ -0,0 +1,102 @@
+package com.metallicbluedev.utils;
+
+/**
+ * Filtres de rééchantillonnage disponibles pour le redimensionnement des images.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+public enum ResampleFilter {
+
+    /**
+     * Plus proche voisin.
+     * Le plus rapide, sans lissage.
+     */
+    NEAREST(0.5d) {
+        @Override
+        double weight(double x) {
+            return (x >= -0.5d && x < 0.5d) ? 1d : 0d;
+        }
+    },
+    /**
+     * Moyenne des pixels couverts (filtre boîte).
+     * En réduction, chaque pixel de destination est la moyenne de la zone source qu'il recouvre.
+     */
+    BOX(0.5d) {
+        @Override
+        double weight(double x) {
+            return (x >= -0.5d && x <= 0.5d) ? 1d : 0d;
+        }
+    },
+    /**
+     * Interpolation bilinéaire (filtre triangle).
+     */
+    BILINEAR(1d) {
+        @Override
+        double weight(double x) {
+            double ax = Math.abs(x);
+            return ax < 1d ? 1d - ax : 0d;
+        }
+    },
+    /**
+     * Interpolation bicubique (Catmull-Rom).
+     */
+    BICUBIC(2d) {
+        @Override
+        double weight(double x) {
+            double ax = Math.abs(x);
+            double rslt = 0d;
+
+            if (ax < 1d) {
+                rslt = (1.5d * ax - 2.5d) * ax * ax + 1d;
+            } else if (ax < 2d) {
+                rslt = ((-0.5d * ax + 2.5d) * ax - 4d) * ax + 2d;
+            }
+            return rslt;
+        }
+    },
+    /**
+     * Filtre de Lanczos (trois lobes).
+     * Le plus précis, mais aussi le plus coûteux.
+     */
+    LANCZOS(3d) {
+        @Override
+        double weight(double x) {
+            double rslt = 0d;
+
+            if (x == 0d) {
+                rslt = 1d;
+            } else if (x > -3d && x < 3d) {
+                double px = Math.PI * x;
+                rslt = 3d * Math.sin(px) * Math.sin(px / 3d) / (px * px);
+            }
+            return rslt;
+        }
+    };
+
+    /**
+     * Rayon du filtre (en pixel source, sans réduction).
+     */
+    private final double support;
+
+    private ResampleFilter(double support) {
+        this.support = support;
+    }
+
+    /**
+     * Retourne le rayon du filtre.
+     *
+     * @return
+     */
+    double getSupport() {
+        return support;
+    }
+
+    /**
+     * Retourne le poids du filtre à la distance indiquée.
+     *
+     * @param x
+     * @return
+     */
+    abstract double weight(double x);
+}
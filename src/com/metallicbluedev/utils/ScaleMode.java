@@ -0,0 +1,28 @@
+package com.metallicbluedev.utils;
+
+/**
+ * Modes de redimensionnement des images.
+ * {@link #DIRECT} est le mode par défaut ; les autres modes sont à choisir explicitement
+ * (voir {@link ImageHelper#scaleMax(java.awt.Image, int, int, ScaleMode)}).
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public enum ScaleMode {
+
+    /**
+     * Redimensionnement en une seule passe bicubique.
+     * Mode par défaut, également utilisé lorsque aucun mode n'est précisé.
+     */
+    DIRECT,
+    /**
+     * Réduction progressive par moitiés successives (bilinéaire), puis une passe bicubique finale.
+     * Contrairement à {@link #DIRECT}, tous les pixels source sont pris en compte : pas de crénelage pour les fortes réductions.
+     */
+    PROGRESSIVE,
+    /**
+     * Moyenne des pixels couverts (filtre boîte), calculée en parallèle.
+     * Meilleure qualité pour les fortes réductions.
+     */
+    AREA_AVERAGING
+}
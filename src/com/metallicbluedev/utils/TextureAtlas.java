@@ -0,0 +1,396 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Atlas de textures.
+ * Range de nombreuses petites images dans quelques grandes images compatibles (pages),
+ * afin que le dessin provienne d'une seule surface accélérée.
+ * <p>
+ * Le placement utilise l'algorithme des rectangles maximaux (MaxRects, meilleur côté court).
+ * Les zones retirées sont fusionnées avec la place libre voisine et réutilisées pour les insertions suivantes.
+ * <p>
+ * Les pixels du bord de chaque image sont recopiés dans sa marge:
+ * un dessin redimensionné ou filtré ne mélange donc jamais l'image avec du noir transparent.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class TextureAtlas {
+
+    /**
+     * Taille d'une page par défaut (en pixel).
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    /**
+     * Marge autour de chaque image, remplie par ses pixels du bord.
+     * Evite le débordement des pixels voisins lors d'un redimensionnement.
+     */
+    private static final int PADDING = 1;
+
+    /**
+     * Taille d'une page (largeur et hauteur).
+     */
+    private final int pageSize;
+
+    /**
+     * Les pages de l'atlas.
+     */
+    private final List<Page> pages = new ArrayList<>();
+
+    public TextureAtlas() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Nouvel atlas.
+     *
+     * @param pageSize Taille d'une page (largeur et hauteur).
+     */
+    public TextureAtlas(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Range une image dans l'atlas.
+     * Une nouvelle page est créée si aucune page existante ne peut la contenir.
+     * Si l'image est plus grande qu'une page, retourne
+     * <code>null</code>.
+     *
+     * @param image
+     * @return AtlasRegion or <code>null</code>.
+     */
+    public synchronized AtlasRegion insert(Image image) {
+        AtlasRegion region = null;
+
+        if (image != null) {
+            int width = image.getWidth(null);
+            int height = image.getHeight(null);
+            int paddedWidth = width + PADDING * 2;
+            int paddedHeight = height + PADDING * 2;
+
+            if (width > 0 && height > 0 && paddedWidth <= pageSize && paddedHeight <= pageSize) {
+                Rectangle slot = null;
+                Page page = null;
+
+                for (Page candidate : pages) {
+                    slot = candidate.allocate(paddedWidth, paddedHeight);
+
+                    if (slot != null) {
+                        page = candidate;
+                        break;
+                    }
+                }
+
+                if (slot == null) {
+                    page = new Page(pages.size(), ImageHelper.createTranslucentBufferedImage(pageSize, pageSize));
+                    pages.add(page);
+                    slot = page.allocate(paddedWidth, paddedHeight);
+                }
+
+                region = new AtlasRegion(page.image, page.index, slot.x + PADDING, slot.y + PADDING, width, height);
+                page.regions.put(region, slot);
+
+                Graphics2D g = page.image.createGraphics();
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(image, region.getX(), region.getY(), null);
+                g.dispose();
+
+                extrude(page.image.getRaster(), region.getX(), region.getY(), width, height);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Recopie les pixels du bord de l'image dans sa marge (coins inclus).
+     *
+     * @param raster
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     */
+    private static void extrude(WritableRaster raster, int x, int y, int width, int height) {
+        for (int i = 1; i <= PADDING; i++) {
+            raster.setDataElements(x - i, y, 1, height, raster.getDataElements(x, y, 1, height, null));
+            raster.setDataElements(x + width - 1 + i, y, 1, height, raster.getDataElements(x + width - 1, y, 1, height, null));
+        }
+
+        // Les lignes recopiées incluent les colonnes de la marge, donc les coins
+        int paddedWidth = width + PADDING * 2;
+
+        for (int i = 1; i <= PADDING; i++) {
+            raster.setDataElements(x - PADDING, y - i, paddedWidth, 1, raster.getDataElements(x - PADDING, y, paddedWidth, 1, null));
+            raster.setDataElements(x - PADDING, y + height - 1 + i, paddedWidth, 1, raster.getDataElements(x - PADDING, y + height - 1, paddedWidth, 1, null));
+        }
+    }
+
+    /**
+     * Retire une image de l'atlas.
+     * Sa zone est effacée puis réutilisée pour les insertions suivantes.
+     *
+     * @param region
+     */
+    public synchronized void remove(AtlasRegion region) {
+        if (region != null && region.isValid() && region.getPageIndex() < pages.size()) {
+            Page page = pages.get(region.getPageIndex());
+            Rectangle slot = page.regions.remove(region);
+
+            if (slot != null) {
+                region.invalidate();
+                page.release(slot);
+            }
+        }
+    }
+
+    /**
+     * Retire toutes les images de l'atlas.
+     */
+    public synchronized void clear() {
+        for (Page page : pages) {
+            for (AtlasRegion region : page.regions.keySet()) {
+                region.invalidate();
+            }
+        }
+
+        pages.clear();
+    }
+
+    /**
+     * Retourne le nombre de pages.
+     *
+     * @return
+     */
+    public synchronized int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Retourne le nombre d'images rangées.
+     *
+     * @return
+     */
+    public synchronized int getRegionCount() {
+        int count = 0;
+
+        for (Page page : pages) {
+            count += page.regions.size();
+        }
+        return count;
+    }
+
+    /**
+     * Retourne la taille d'une page.
+     *
+     * @return
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Une page de l'atlas.
+     */
+    private final class Page {
+
+        private final int index;
+
+        private final BufferedImage image;
+
+        /**
+         * Les zones rangées et leur emplacement (marge incluse).
+         */
+        private final Map<AtlasRegion, Rectangle> regions = new IdentityHashMap<>();
+
+        /**
+         * Les rectangles libres les plus grands possibles (ils peuvent se chevaucher).
+         */
+        private final List<Rectangle> freeRects = new ArrayList<>();
+
+        private Page(int index, BufferedImage image) {
+            this.index = index;
+            this.image = image;
+            reset();
+        }
+
+        /**
+         * Remet la page à vide.
+         */
+        private void reset() {
+            freeRects.clear();
+            freeRects.add(new Rectangle(0, 0, pageSize, pageSize));
+        }
+
+        /**
+         * Réserve un emplacement dans le rectangle libre laissant le plus petit reste sur son côté le plus court.
+         * Si la page est pleine, retourne <code>null</code>.
+         *
+         * @param width
+         * @param height
+         * @return Rectangle or <code>null</code>.
+         */
+        private Rectangle allocate(int width, int height) {
+            Rectangle best = null;
+            int bestShortSide = Integer.MAX_VALUE;
+            int bestLongSide = Integer.MAX_VALUE;
+
+            for (Rectangle free : freeRects) {
+                if (free.width >= width && free.height >= height) {
+                    int shortSide = Math.min(free.width - width, free.height - height);
+                    int longSide = Math.max(free.width - width, free.height - height);
+
+                    if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+                        best = free;
+                        bestShortSide = shortSide;
+                        bestLongSide = longSide;
+                    }
+                }
+            }
+
+            Rectangle slot = null;
+
+            if (best != null) {
+                slot = new Rectangle(best.x, best.y, width, height);
+                occupy(slot);
+            }
+            return slot;
+        }
+
+        /**
+         * Retire l'emplacement des rectangles libres.
+         * Chaque rectangle libre recouvert est découpé en ses parties restantes (gauche, droite, haut, bas).
+         *
+         * @param slot
+         */
+        private void occupy(Rectangle slot) {
+            List<Rectangle> pieces = new ArrayList<>();
+
+            for (Iterator<Rectangle> it = freeRects.iterator(); it.hasNext();) {
+                Rectangle free = it.next();
+
+                if (free.intersects(slot)) {
+                    it.remove();
+
+                    if (slot.x > free.x) {
+                        pieces.add(new Rectangle(free.x, free.y, slot.x - free.x, free.height));
+                    }
+
+                    if (slot.x + slot.width < free.x + free.width) {
+                        pieces.add(new Rectangle(slot.x + slot.width, free.y, free.x + free.width - slot.x - slot.width, free.height));
+                    }
+
+                    if (slot.y > free.y) {
+                        pieces.add(new Rectangle(free.x, free.y, free.width, slot.y - free.y));
+                    }
+
+                    if (slot.y + slot.height < free.y + free.height) {
+                        pieces.add(new Rectangle(free.x, slot.y + slot.height, free.width, free.y + free.height - slot.y - slot.height));
+                    }
+                }
+            }
+
+            for (Rectangle piece : pieces) {
+                addFreeRect(piece);
+            }
+        }
+
+        /**
+         * Ajoute un rectangle libre, sauf s'il est déjà contenu dans un autre.
+         * Les rectangles libres qu'il contient sont supprimés.
+         *
+         * @param rect
+         * @return <code>true</code> si le rectangle a été ajouté.
+         */
+        private boolean addFreeRect(Rectangle rect) {
+            boolean added = false;
+
+            if (!rect.isEmpty()) {
+                added = true;
+
+                for (Rectangle free : freeRects) {
+                    if (free.contains(rect)) {
+                        added = false;
+                        break;
+                    }
+                }
+
+                if (added) {
+                    freeRects.removeIf(rect::contains);
+                    freeRects.add(rect);
+                }
+            }
+            return added;
+        }
+
+        /**
+         * Libère un emplacement.
+         * L'emplacement est fusionné avec les rectangles libres voisins, afin que la place libérée
+         * puisse accueillir des images plus grandes que l'emplacement lui-même.
+         * Lorsque la page ne contient plus aucune image, elle est entièrement remise à vide.
+         *
+         * @param slot
+         */
+        private void release(Rectangle slot) {
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(slot.x, slot.y, slot.width, slot.height);
+            g.dispose();
+
+            if (regions.isEmpty()) {
+                reset();
+            } else {
+                Deque<Rectangle> pending = new ArrayDeque<>();
+                pending.add(new Rectangle(slot));
+
+                while (!pending.isEmpty()) {
+                    Rectangle rect = pending.poll();
+
+                    if (addFreeRect(rect)) {
+                        // Etend le nouveau rectangle à travers chacun de ses voisins libres
+                        for (Rectangle free : freeRects) {
+                            if (free != rect) {
+                                pending.add(span(rect, free, true));
+                                pending.add(span(rect, free, false));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Retourne le rectangle libre traversant deux rectangles libres qui se touchent ou se chevauchent.
+         * Si aucun rectangle ne les traverse dans cette direction, retourne un rectangle vide.
+         *
+         * @param first
+         * @param second
+         * @param horizontal
+         * @return
+         */
+        private Rectangle span(Rectangle first, Rectangle second, boolean horizontal) {
+            Rectangle spanned = new Rectangle();
+
+            if (horizontal) {
+                if (first.x <= second.x + second.width && second.x <= first.x + first.width) {
+                    int top = Math.max(first.y, second.y);
+                    int bottom = Math.min(first.y + first.height, second.y + second.height);
+                    int left = Math.min(first.x, second.x);
+                    int right = Math.max(first.x + first.width, second.x + second.width);
+                    spanned.setBounds(left, top, right - left, Math.max(0, bottom - top));
+                }
+            } else if (first.y <= second.y + second.height && second.y <= first.y + first.height) {
+                int left = Math.max(first.x, second.x);
+                int right = Math.min(first.x + first.width, second.x + second.width);
+                int top = Math.min(first.y, second.y);
+                int bottom = Math.max(first.y + first.height, second.y + second.height);
+                spanned.setBounds(left, top, Math.max(0, right - left), bottom - top);
+            }
+            return spanned;
+        }
+    }
+}
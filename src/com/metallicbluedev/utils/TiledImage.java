@@ -0,0 +1,425 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.util.*;
+import javax.imageio.*;
+import javax.imageio.stream.*;
+
+/**
+ * Très grande image décodée à la demande, par tuiles.
+ * Seules les tuiles visibles sont lues depuis le fichier (PNG, JPEG, TIFF...) via {@link ImageReader},
+ * avec un sous-échantillonnage adapté à l'échelle d'affichage.
+ * Les tuiles décodées sont conservées dans un cache de taille limitée.
+ * <p>
+ * Ne pas oublier de fermer l'image.
+ *
+ * @version 1.00.01
+ * @author Sebastien Villemain
+ */
+public class TiledImage implements Closeable {
+
+    /**
+     * Taille d'une tuile par défaut (en pixel décodé).
+     */
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    /**
+     * Taille maximum du cache des tuiles par défaut (en octet).
+     */
+    public static final long DEFAULT_CACHE_SIZE = 64L * 1048576;
+
+    /**
+     * Flux de lecture du fichier.
+     */
+    private final ImageInputStream stream;
+
+    /**
+     * Décodeur de l'image.
+     */
+    private final ImageReader reader;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * Taille d'une tuile.
+     */
+    private final int tileSize;
+
+    /**
+     * Taille maximum du cache (en octet).
+     */
+    private final long cacheSize;
+
+    /**
+     * Les tuiles décodées, de la moins récemment utilisée à la plus récente.
+     */
+    private final LinkedHashMap<TileKey, BufferedImage> tiles = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Taille actuelle du cache (en octet).
+     */
+    private long currentCacheSize = 0;
+
+    /**
+     * Ouverture d'une image avec la taille de tuile et de cache par défaut.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public TiledImage(File file) throws IOException {
+        this(file, DEFAULT_TILE_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Ouverture d'une image.
+     *
+     * @param file
+     * @param tileSize Taille d'une tuile (en pixel décodé).
+     * @param cacheSize Taille maximum du cache des tuiles (en octet).
+     * @throws IOException Si le fichier est illisible ou si son format n'est pas supporté.
+     */
+    public TiledImage(File file, int tileSize, long cacheSize) throws IOException {
+        this.tileSize = tileSize;
+        this.cacheSize = cacheSize;
+
+        stream = ImageIO.createImageInputStream(file);
+
+        if (stream == null) {
+            throw new IOException("Unable to open image " + file + ".");
+        }
+
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+
+        if (!readers.hasNext()) {
+            stream.close();
+            throw new IOException("No image reader found for " + file + ".");
+        }
+
+        reader = readers.next();
+        reader.setInput(stream, false, true);
+
+        try {
+            width = reader.getWidth(0);
+            height = reader.getHeight(0);
+        } catch (IOException ex) {
+            reader.dispose();
+            stream.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Retourne la largeur de l'image source.
+     *
+     * @return
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Retourne la hauteur de l'image source.
+     *
+     * @return
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retourne la taille d'une tuile.
+     *
+     * @return
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Retourne le nombre de colonnes de tuiles pour le sous-échantillonnage.
+     *
+     * @param subsampling
+     * @return
+     */
+    public int getColumnCount(int subsampling) {
+        return (getSubsampledSize(width, subsampling) + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Retourne le nombre de lignes de tuiles pour le sous-échantillonnage.
+     *
+     * @param subsampling
+     * @return
+     */
+    public int getRowCount(int subsampling) {
+        return (getSubsampledSize(height, subsampling) + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Retourne une tuile décodée.
+     * La tuile est lue depuis le fichier si elle n'est pas dans le cache.
+     *
+     * @param column
+     * @param row
+     * @param subsampling Un pixel décodé pour N pixels source (1 pour la pleine résolution).
+     * @return
+     * @throws IOException
+     */
+    public BufferedImage getTile(int column, int row, int subsampling) throws IOException {
+        TileKey key = new TileKey(column, row, subsampling);
+        BufferedImage tile;
+
+        synchronized (tiles) {
+            tile = tiles.get(key);
+        }
+
+        if (tile == null) {
+            tile = readTile(column, row, subsampling);
+
+            synchronized (tiles) {
+                BufferedImage previous = tiles.put(key, tile);
+
+                if (previous != null) {
+                    currentCacheSize -= ImageCache.getSizeInBytes(previous);
+                }
+
+                currentCacheSize += ImageCache.getSizeInBytes(tile);
+                trim();
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Retourne une zone de l'image.
+     * Seules les tuiles recouvrant la zone sont décodées.
+     * La zone est limitée à l'image ; si elle est entièrement en dehors, retourne <code>null</code>.
+     *
+     * @param region Zone dans l'image source.
+     * @param subsampling Un pixel décodé pour N pixels source.
+     * @return BufferedImage or <code>null</code>.
+     * @throws IOException
+     */
+    public BufferedImage getRegion(Rectangle region, int subsampling) throws IOException {
+        Rectangle source = region.intersection(new Rectangle(0, 0, width, height));
+        BufferedImage newImage = null;
+
+        if (!source.isEmpty()) {
+            newImage = new BufferedImage(Math.max(1, source.width / subsampling), Math.max(1, source.height / subsampling), BufferedImage.TYPE_INT_ARGB);
+
+            Graphics2D g = newImage.createGraphics();
+            drawTiles(g, source, new Rectangle(0, 0, newImage.getWidth(), newImage.getHeight()), subsampling);
+            g.dispose();
+        }
+        return newImage;
+    }
+
+    /**
+     * Dessine une zone de l'image dans la zone de destination.
+     * Le sous-échantillonnage est choisi suivant l'échelle d'affichage, puis seules les tuiles visibles sont décodées.
+     * La partie de la zone en dehors de l'image n'est pas dessinée : la destination est réduite dans la même proportion.
+     *
+     * @param g
+     * @param region Zone dans l'image source.
+     * @param destination Zone de destination.
+     * @throws IOException
+     */
+    public void draw(Graphics2D g, Rectangle region, Rectangle destination) throws IOException {
+        Rectangle source = region.intersection(new Rectangle(0, 0, width, height));
+
+        if (!source.isEmpty() && !destination.isEmpty()) {
+            double scaleX = (double) destination.width / region.width;
+            double scaleY = (double) destination.height / region.height;
+
+            // Partie de la destination correspondant à la zone visible de l'image
+            int x1 = destination.x + (int) Math.round((source.x - region.x) * scaleX);
+            int y1 = destination.y + (int) Math.round((source.y - region.y) * scaleY);
+            int x2 = destination.x + (int) Math.round((source.x + source.width - region.x) * scaleX);
+            int y2 = destination.y + (int) Math.round((source.y + source.height - region.y) * scaleY);
+
+            if (x2 > x1 && y2 > y1) {
+                drawTiles(g, source, new Rectangle(x1, y1, x2 - x1, y2 - y1), getSubsampling(Math.min(scaleX, scaleY)));
+            }
+        }
+    }
+
+    /**
+     * Redimensionne l'image en suivant les tailles recommandées.
+     * L'image est décodée au sous-échantillonnage le plus proche, sans jamais être chargée en pleine résolution.
+     * Si le format n'est pas découpé en tuiles (JPEG, PNG...), l'image est décodée en une seule lecture :
+     * chaque tuile obligerait sinon à décoder à nouveau le début du fichier.
+     *
+     * @param widthMax
+     * @param heightMax
+     * @return
+     * @throws IOException
+     */
+    public BufferedImage scaleMax(int widthMax, int heightMax) throws IOException {
+        double scale = Math.min((double) widthMax / width, (double) heightMax / height);
+        BufferedImage newImage = new BufferedImage(Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale)), BufferedImage.TYPE_INT_ARGB);
+        boolean tiled;
+
+        synchronized (reader) {
+            tiled = reader.isImageTiled(0);
+        }
+
+        Graphics2D g = newImage.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        try {
+            if (tiled) {
+                draw(g, new Rectangle(0, 0, width, height), new Rectangle(0, 0, newImage.getWidth(), newImage.getHeight()));
+            } else {
+                BufferedImage subsampled = readRegion(new Rectangle(0, 0, width, height), getSubsampling(scale));
+                g.drawImage(subsampled, 0, 0, newImage.getWidth(), newImage.getHeight(), null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return newImage;
+    }
+
+    /**
+     * Retourne le sous-échantillonnage (puissance de deux) le plus grand qui conserve au moins la résolution demandée.
+     *
+     * @param scale Echelle d'affichage par rapport à l'image source.
+     * @return
+     */
+    public int getSubsampling(double scale) {
+        int subsampling = 1;
+
+        while (scale > 0 && subsampling * 2 * scale <= 1d
+               && getSubsampledSize(Math.min(width, height), subsampling * 2) > 1) {
+            subsampling *= 2;
+        }
+        return subsampling;
+    }
+
+    /**
+     * Vide le cache des tuiles.
+     */
+    public void clearCache() {
+        synchronized (tiles) {
+            tiles.clear();
+            currentCacheSize = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        clearCache();
+
+        synchronized (reader) {
+            reader.dispose();
+        }
+
+        stream.close();
+    }
+
+    /**
+     * Dessine les tuiles recouvrant la zone source.
+     *
+     * @param g
+     * @param source Zone dans l'image source.
+     * @param destination Zone de destination.
+     * @param subsampling
+     * @throws IOException
+     */
+    private void drawTiles(Graphics2D g, Rectangle source, Rectangle destination, int subsampling) throws IOException {
+        double scaleX = (double) destination.width / source.width;
+        double scaleY = (double) destination.height / source.height;
+        int span = tileSize * subsampling;
+
+        for (int row = source.y / span; row * span < source.y + source.height; row++) {
+            for (int column = source.x / span; column * span < source.x + source.width; column++) {
+                BufferedImage tile = getTile(column, row, subsampling);
+
+                // Position de la tuile dans l'image source, puis dans la destination
+                int tileX = column * span;
+                int tileY = row * span;
+                int dx1 = destination.x + (int) Math.floor((tileX - source.x) * scaleX);
+                int dy1 = destination.y + (int) Math.floor((tileY - source.y) * scaleY);
+                int dx2 = destination.x + (int) Math.ceil((tileX + tile.getWidth() * subsampling - source.x) * scaleX);
+                int dy2 = destination.y + (int) Math.ceil((tileY + tile.getHeight() * subsampling - source.y) * scaleY);
+
+                Shape clip = g.getClip();
+                g.clipRect(destination.x, destination.y, destination.width, destination.height);
+                g.drawImage(tile, dx1, dy1, dx2, dy2, 0, 0, tile.getWidth(), tile.getHeight(), null);
+                g.setClip(clip);
+            }
+        }
+    }
+
+    /**
+     * Décode une tuile depuis le fichier.
+     *
+     * @param column
+     * @param row
+     * @param subsampling
+     * @return
+     * @throws IOException
+     */
+    private BufferedImage readTile(int column, int row, int subsampling) throws IOException {
+        int span = tileSize * subsampling;
+        Rectangle region = new Rectangle(column * span, row * span, span, span).intersection(new Rectangle(0, 0, width, height));
+
+        if (region.isEmpty()) {
+            throw new IOException("Tile " + column + "x" + row + " is outside of the image.");
+        }
+        return readRegion(region, subsampling);
+    }
+
+    /**
+     * Décode une zone de l'image depuis le fichier.
+     *
+     * @param region Zone dans l'image source.
+     * @param subsampling
+     * @return
+     * @throws IOException
+     */
+    private BufferedImage readRegion(Rectangle region, int subsampling) throws IOException {
+        synchronized (reader) {
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(region);
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+            return reader.read(0, param);
+        }
+    }
+
+    /**
+     * Retire les tuiles les moins récemment utilisées jusqu'à respecter la taille maximum du cache.
+     * A appeler avec le verrou du cache.
+     */
+    private void trim() {
+        Iterator<BufferedImage> it = tiles.values().iterator();
+
+        // La tuile la plus récente est toujours conservée
+        while (currentCacheSize > cacheSize && tiles.size() > 1 && it.hasNext()) {
+            currentCacheSize -= ImageCache.getSizeInBytes(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Retourne la taille après sous-échantillonnage.
+     *
+     * @param size
+     * @param subsampling
+     * @return
+     */
+    private static int getSubsampledSize(int size, int subsampling) {
+        return (size + subsampling - 1) / subsampling;
+    }
+
+    /**
+     * Clé d'une tuile.
+     */
+    private record TileKey(int column, int row, int subsampling) {
+
+    }
+}
@@ -0,0 +1,586 @@
+package com.metallicbluedev.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Redimensionnement parallèle des grandes images.
+ * L'image de destination est découpée en tuiles, traitées sur un {@link ForkJoinPool}.
+ * Chaque tuile est rééchantillonnée en deux passes (horizontale puis verticale)
+ * sur les pixels entiers de l'image, en couleurs prémultipliées.
+ * Les pixels sont lus et écrits ligne par ligne à travers le {@link Raster}.
+ * Pour les types qui ne sont pas {@link BufferedImage#TYPE_INT_ARGB} ou {@link BufferedImage#TYPE_INT_RGB},
+ * la source est convertie ligne par ligne et la destination reçoit chaque tuile par une copie Java2D :
+ * aucune copie complète de l'image n'est nécessaire, et les images restent éligibles à l'accélération matérielle.
+ * <p>
+ * L'image produite a la même taille et le même type que {@link ImageHelper#scale(java.awt.Image, int, int)}.
+ *
+ * @version 1.02.01
+ * @author Sebastien Villemain
+ */
+public class TiledImageScaler {
+
+    /**
+     * Taille d'une tuile (en pixel de destination).
+     */
+    public static final int TILE_SIZE = 256;
+
+    /**
+     * Nombre de pixels de destination en dessous duquel le traitement n'est pas parallélisé.
+     */
+    private static final int PARALLEL_THRESHOLD = TILE_SIZE * TILE_SIZE;
+
+    /**
+     * Nombre maximum de tables de contributions conservées.
+     */
+    private static final int CONTRIBUTORS_CACHE_SIZE = 16;
+
+    /**
+     * Longueur maximum des tampons conservés par chaque thread.
+     * Un tampon plus grand est alloué pour le seul appel en cours.
+     */
+    private static final int MAXIMUM_CACHED_BUFFER_LENGTH = 1 << 20;
+
+    /**
+     * Les tables de contributions récemment utilisées, réutilisées lorsque la même taille est redemandée.
+     */
+    private static final LinkedHashMap<ContributorsKey, Contributors> CONTRIBUTORS = new LinkedHashMap<>(CONTRIBUTORS_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ContributorsKey, Contributors> eldest) {
+            return size() > CONTRIBUTORS_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Tampon de la passe horizontale, réutilisé par chaque thread.
+     */
+    private static final ThreadLocal<float[]> TILE_BUFFER = new ThreadLocal<>();
+
+    /**
+     * Tampon d'une ligne de pixels, réutilisé par chaque thread.
+     */
+    private static final ThreadLocal<int[]> ROW_BUFFER = new ThreadLocal<>();
+
+    /**
+     * Tuile ARGB intermédiaire des destinations qui ne sont pas de type INT, réutilisée par chaque thread.
+     */
+    private static final ThreadLocal<BufferedImage> TILE_IMAGE = ThreadLocal.withInitial(() -> new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB));
+
+    private TiledImageScaler() {
+        // NE RIEN FAIRE
+    }
+
+    /**
+     * Redimensionne une image pour une taille exacte sur le {@link ForkJoinPool#commonPool()}.
+     *
+     * @param image Image à redimensionner.
+     * @param width Largeur de l'image cible.
+     * @param height Hauteur de l'image cible.
+     * @param filter Filtre de rééchantillonnage.
+     * @return Image redimensionnée.
+     */
+    public static BufferedImage scale(Image image, int width, int height, ResampleFilter filter) {
+        return scale(image, width, height, filter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Redimensionne une image pour une taille exacte.
+     *
+     * @param image Image à redimensionner.
+     * @param width Largeur de l'image cible.
+     * @param height Hauteur de l'image cible.
+     * @param filter Filtre de rééchantillonnage.
+     * @param pool Les processus de calcul.
+     * @return Image redimensionnée.
+     */
+    public static BufferedImage scale(Image image, int width, int height, ResampleFilter filter, ForkJoinPool pool) {
+        BufferedImage newImage = null;
+
+        if (image != null && width > 0 && height > 0) {
+            int type;
+
+            if (image instanceof BufferedImage bufferedImage) {
+                type = bufferedImage.getType();
+            } else {
+                type = BufferedImage.TYPE_INT_ARGB;
+            }
+
+            newImage = new BufferedImage(width, height, type != BufferedImage.TYPE_CUSTOM ? type : BufferedImage.TYPE_INT_ARGB);
+            resample(toSourceImage(image), newImage, filter, pool);
+        }
+        return newImage;
+    }
+
+    /**
+     * Redimensionne une image dans une image de destination existante.
+     * Pour une source bufferisée, le redimensionnement répété à la même taille n'alloue pratiquement plus de mémoire,
+     * quel que soit le type des images.
+     *
+     * @param image Image à redimensionner.
+     * @param destination Image cible, dont la taille est utilisée.
+     * @param filter Filtre de rééchantillonnage.
+     * @return L'image cible.
+     */
+    public static BufferedImage scale(Image image, BufferedImage destination, ResampleFilter filter) {
+        if (image != null && destination != null) {
+            resample(toSourceImage(image), destination, filter, ForkJoinPool.commonPool());
+        }
+        return destination;
+    }
+
+    /**
+     * Rééchantillonne l'image source dans l'image de destination.
+     * Les pixels des images de type INT (voir {@link #isIntRasterImage(java.awt.image.BufferedImage)}) sont copiés tels quels,
+     * ceux des autres types sont convertis en ARGB (par ligne pour la source, par tuile pour la destination).
+     *
+     * @param source
+     * @param destination
+     * @param filter
+     * @param pool
+     */
+    static void resample(BufferedImage source, BufferedImage destination, ResampleFilter filter, ForkJoinPool pool) {
+        int dstWidth = destination.getWidth();
+        int dstHeight = destination.getHeight();
+
+        ScaleJob job = new ScaleJob(source, isIntRasterImage(source), source.getType() == BufferedImage.TYPE_INT_RGB,
+                                    destination, isIntRasterImage(destination), dstWidth,
+                                    getContributors(source.getWidth(), dstWidth, filter),
+                                    getContributors(source.getHeight(), dstHeight, filter));
+
+        int columns = (dstWidth + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (dstHeight + TILE_SIZE - 1) / TILE_SIZE;
+        TileTask task = new TileTask(job, columns, 0, columns * rows);
+
+        if (pool == null || (long) dstWidth * dstHeight < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Retourne les contributions pour un axe.
+     * Les tables récemment calculées sont réutilisées.
+     *
+     * @param srcSize
+     * @param dstSize
+     * @param filter
+     * @return
+     */
+    static Contributors getContributors(int srcSize, int dstSize, ResampleFilter filter) {
+        ContributorsKey key = new ContributorsKey(srcSize, dstSize, filter);
+        Contributors contributors;
+
+        synchronized (CONTRIBUTORS) {
+            contributors = CONTRIBUTORS.get(key);
+        }
+
+        if (contributors == null) {
+            contributors = Contributors.create(srcSize, dstSize, filter);
+
+            synchronized (CONTRIBUTORS) {
+                CONTRIBUTORS.put(key, contributors);
+            }
+        }
+        return contributors;
+    }
+
+    /**
+     * Retourne le tampon de la passe horizontale du thread courant.
+     *
+     * @param size Taille minimum.
+     * @return
+     */
+    private static float[] getTileBuffer(int size) {
+        float[] buffer = TILE_BUFFER.get();
+
+        if (buffer == null || buffer.length < size) {
+            buffer = new float[size];
+
+            if (size <= MAXIMUM_CACHED_BUFFER_LENGTH) {
+                TILE_BUFFER.set(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Retourne le tampon de ligne du thread courant.
+     *
+     * @param size Taille minimum.
+     * @return
+     */
+    private static int[] getRowBuffer(int size) {
+        int[] buffer = ROW_BUFFER.get();
+
+        if (buffer == null || buffer.length < size) {
+            buffer = new int[size];
+
+            if (size <= MAXIMUM_CACHED_BUFFER_LENGTH) {
+                ROW_BUFFER.set(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Vérifie si les pixels de l'image sont lisibles sous forme d'entier (un entier par pixel).
+     *
+     * @param image
+     * @return
+     */
+    static boolean isIntRasterImage(BufferedImage image) {
+        int type = image.getType();
+        return type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB;
+    }
+
+    /**
+     * Retourne l'image bufferisée à redimensionner.
+     * Seule une image qui n'est pas bufferisée (image du toolkit) est convertie.
+     *
+     * @param image
+     * @return
+     */
+    private static BufferedImage toSourceImage(Image image) {
+        return image instanceof BufferedImage bufferedImage ? bufferedImage : toIntRasterImage(image);
+    }
+
+    /**
+     * Retourne une image dont les pixels sont lisibles sous forme d'entier.
+     * L'image est convertie si besoin.
+     * Une image du toolkit est attendue jusqu'à son chargement complet.
+     *
+     * @param image
+     * @return
+     */
+    static BufferedImage toIntRasterImage(Image image) {
+        BufferedImage rslt = null;
+
+        if (image instanceof BufferedImage bufferedImage && isIntRasterImage(bufferedImage)) {
+            rslt = bufferedImage;
+        } else {
+            ImageHelper.waitForImage(image);
+
+            rslt = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = rslt.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        }
+        return rslt;
+    }
+
+    /**
+     * Copie une zone de pixels de l'image dans le tampon.
+     * L'image doit être de type INT (un entier par pixel).
+     * La copie passe par le {@link Raster} : contrairement à un accès direct au tableau de données,
+     * l'image reste éligible à l'accélération matérielle.
+     *
+     * @param image
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     * @param buffer Tampon réutilisé ou <code>null</code>.
+     * @return Le tampon rempli.
+     */
+    static int[] getPixels(BufferedImage image, int x, int y, int width, int height, int[] buffer) {
+        return (int[]) image.getRaster().getDataElements(x, y, width, height, buffer);
+    }
+
+    /**
+     * Copie le tampon dans une zone de pixels de l'image.
+     * L'image doit être de type INT (un entier par pixel).
+     *
+     * @param image
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     * @param pixels
+     */
+    static void setPixels(BufferedImage image, int x, int y, int width, int height, int[] pixels) {
+        image.getRaster().setDataElements(x, y, width, height, pixels);
+    }
+
+    /**
+     * Retourne le pixel ARGB correspondant aux composantes prémultipliées.
+     * Un alpha qui s'arrondit à zéro donne un pixel entièrement transparent.
+     *
+     * @param a Alpha (de 0 à 255).
+     * @param r Rouge prémultiplié.
+     * @param g Vert prémultiplié.
+     * @param b Bleu prémultiplié.
+     * @return
+     */
+    static int toPixel(float a, float r, float g, float b) {
+        int rslt = 0;
+
+        if (a >= 0.5f) {
+            rslt = (clamp(a) << 24) | (clamp(r / a) << 16) | (clamp(g / a) << 8) | clamp(b / a);
+        }
+        return rslt;
+    }
+
+    /**
+     * Limite une valeur entre 0 et 255.
+     *
+     * @param value
+     * @return
+     */
+    private static int clamp(float value) {
+        int rslt = (int) (value + 0.5f);
+        return rslt < 0 ? 0 : (rslt > 255 ? 255 : rslt);
+    }
+
+    /**
+     * Contributions des pixels source pour chaque pixel de destination, sur un axe.
+     */
+    static final class Contributors {
+
+        /**
+         * Premier pixel source de chaque pixel de destination.
+         */
+        final int[] start;
+
+        /**
+         * Nombre de pixels source de chaque pixel de destination.
+         */
+        final int[] count;
+
+        /**
+         * Poids normalisés, {@link #stride} valeurs par pixel de destination.
+         */
+        final float[] weights;
+
+        /**
+         * Nombre maximum de pixels source par pixel de destination.
+         */
+        final int stride;
+
+        private Contributors(int size, int stride) {
+            this.start = new int[size];
+            this.count = new int[size];
+            this.weights = new float[size * stride];
+            this.stride = stride;
+        }
+
+        /**
+         * Calcule les contributions pour un axe.
+         *
+         * @param srcSize
+         * @param dstSize
+         * @param filter
+         * @return
+         */
+        static Contributors create(int srcSize, int dstSize, ResampleFilter filter) {
+            double scale = (double) dstSize / srcSize;
+            Contributors contributors;
+
+            if (filter == ResampleFilter.NEAREST) {
+                contributors = new Contributors(dstSize, 1);
+
+                for (int d = 0; d < dstSize; d++) {
+                    contributors.start[d] = Math.min(srcSize - 1, (int) ((d + 0.5d) / scale));
+                    contributors.count[d] = 1;
+                    contributors.weights[d] = 1f;
+                }
+            } else {
+                // En réduction, le filtre est élargi pour couvrir tous les pixels source
+                double filterScale = Math.max(1d, 1d / scale);
+                double support = filter.getSupport() * filterScale;
+                int stride = (int) Math.ceil(support * 2d) + 2;
+                contributors = new Contributors(dstSize, stride);
+
+                for (int d = 0; d < dstSize; d++) {
+                    double center = (d + 0.5d) / scale;
+                    int left = Math.max(0, (int) Math.floor(center - support));
+                    int right = Math.min(srcSize - 1, (int) Math.ceil(center + support));
+                    int offset = d * stride;
+                    double total = 0d;
+                    int n = 0;
+
+                    for (int s = left; s <= right && n < stride; s++, n++) {
+                        double w = filter.weight((s + 0.5d - center) / filterScale);
+                        contributors.weights[offset + n] = (float) w;
+                        total += w;
+                    }
+
+                    if (total != 0d) {
+                        for (int i = 0; i < n; i++) {
+                            contributors.weights[offset + i] /= (float) total;
+                        }
+                    }
+
+                    contributors.start[d] = left;
+                    contributors.count[d] = n;
+                }
+            }
+            return contributors;
+        }
+    }
+
+    /**
+     * Clé d'une table de contributions.
+     */
+    private record ContributorsKey(int srcSize, int dstSize, ResampleFilter filter) {
+
+    }
+
+    /**
+     * Paramètres communs d'un redimensionnement.
+     */
+    private record ScaleJob(BufferedImage source, boolean srcDirect, boolean srcOpaque,
+                            BufferedImage destination, boolean dstDirect, int dstWidth,
+                            Contributors xContributors, Contributors yContributors) {
+
+    }
+
+    /**
+     * Traitement d'un ensemble de tuiles, découpé récursivement.
+     */
+    private static final class TileTask extends RecursiveAction {
+
+        private final ScaleJob job;
+
+        private final int columns;
+
+        private final int from;
+
+        private final int to;
+
+        private TileTask(ScaleJob job, int columns, int from, int to) {
+            this.job = job;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(job, columns, from, middle), new TileTask(job, columns, middle, to));
+            } else if (to > from) {
+                int x = (from % columns) * TILE_SIZE;
+                int y = (from / columns) * TILE_SIZE;
+                int width = Math.min(TILE_SIZE, job.dstWidth() - x);
+                int height = Math.min(TILE_SIZE, job.yContributors().start.length - y);
+                resampleTile(x, y, width, height);
+            }
+        }
+
+        /**
+         * Rééchantillonne une tuile.
+         *
+         * @param tileX
+         * @param tileY
+         * @param tileWidth
+         * @param tileHeight
+         */
+        private void resampleTile(int tileX, int tileY, int tileWidth, int tileHeight) {
+            Contributors xc = job.xContributors();
+            Contributors yc = job.yContributors();
+            boolean opaque = job.srcOpaque();
+
+            // Lignes et colonnes source nécessaires à la tuile
+            int firstRow = yc.start[tileY];
+            int lastRow = firstRow;
+
+            for (int y = tileY; y < tileY + tileHeight; y++) {
+                lastRow = Math.max(lastRow, yc.start[y] + yc.count[y]);
+            }
+
+            int firstColumn = xc.start[tileX];
+            int lastColumn = firstColumn;
+
+            for (int x = tileX; x < tileX + tileWidth; x++) {
+                firstColumn = Math.min(firstColumn, xc.start[x]);
+                lastColumn = Math.max(lastColumn, xc.start[x] + xc.count[x]);
+            }
+
+            // Les passes sont successives : la même ligne sert à la lecture puis à l'écriture
+            int span = lastColumn - firstColumn;
+            int[] row = getRowBuffer(Math.max(span, tileWidth));
+
+            // Passe horizontale: composantes prémultipliées (a, r, g, b)
+            float[] buffer = getTileBuffer((lastRow - firstRow) * tileWidth * 4);
+
+            for (int sy = firstRow; sy < lastRow; sy++) {
+                if (job.srcDirect()) {
+                    job.source().getRaster().getDataElements(firstColumn, sy, span, 1, row);
+                } else {
+                    job.source().getRGB(firstColumn, sy, span, 1, row, 0, span);
+                }
+
+                int bufferOffset = (sy - firstRow) * tileWidth * 4;
+
+                for (int dx = 0; dx < tileWidth; dx++) {
+                    int x = tileX + dx;
+                    int start = xc.start[x] - firstColumn;
+                    int weightOffset = x * xc.stride;
+                    float a = 0f, r = 0f, g = 0f, b = 0f;
+
+                    for (int i = 0; i < xc.count[x]; i++) {
+                        int p = row[start + i];
+                        float w = xc.weights[weightOffset + i];
+                        float pa = opaque ? 255f : (p >>> 24);
+                        float wa = w * pa;
+                        a += wa;
+                        r += wa * ((p >> 16) & 0xff);
+                        g += wa * ((p >> 8) & 0xff);
+                        b += wa * (p & 0xff);
+                    }
+
+                    int o = bufferOffset + dx * 4;
+                    buffer[o] = a;
+                    buffer[o + 1] = r;
+                    buffer[o + 2] = g;
+                    buffer[o + 3] = b;
+                }
+            }
+
+            // Passe verticale, dans la destination ou dans la tuile intermédiaire
+            BufferedImage tileImage = job.dstDirect() ? null : TILE_IMAGE.get();
+            WritableRaster target = job.dstDirect() ? job.destination().getRaster() : tileImage.getRaster();
+            int targetX = job.dstDirect() ? tileX : 0;
+            int targetY = job.dstDirect() ? tileY : 0;
+
+            for (int dy = 0; dy < tileHeight; dy++) {
+                int y = tileY + dy;
+                int start = yc.start[y] - firstRow;
+                int weightOffset = y * yc.stride;
+
+                for (int dx = 0; dx < tileWidth; dx++) {
+                    float a = 0f, r = 0f, g = 0f, b = 0f;
+
+                    for (int j = 0; j < yc.count[y]; j++) {
+                        int o = ((start + j) * tileWidth + dx) * 4;
+                        float w = yc.weights[weightOffset + j];
+                        a += w * buffer[o];
+                        r += w * buffer[o + 1];
+                        g += w * buffer[o + 2];
+                        b += w * buffer[o + 3];
+                    }
+
+                    row[dx] = toPixel(a, r, g, b);
+                }
+
+                target.setDataElements(targetX, targetY + dy, tileWidth, 1, row);
+            }
+
+            if (tileImage != null) {
+                Graphics2D g = job.destination().createGraphics();
+
+                try {
+                    g.setComposite(AlphaComposite.Src);
+                    g.drawImage(tileImage, tileX, tileY, tileX + tileWidth, tileY + tileHeight, 0, 0, tileWidth, tileHeight, null);
+                } finally {
+                    g.dispose();
+                }
+            }
+        }
+    }
+}
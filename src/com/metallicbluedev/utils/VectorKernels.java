@@ -0,0 +1,100 @@
+package com.metallicbluedev.utils;
+
+/**
+ * Traitements par pixel de {@link PixelKernels} accélérés par vecteurs.
+ * Chaque traitement ne couvre que des vecteurs complets et retourne le nombre de pixels traités :
+ * les pixels restants sont traités par la boucle scalaire de {@link PixelKernels}.
+ * <p>
+ * L'implémentation utilisant le module incubateur <code>jdk.incubator.vector</code> est compilée à part
+ * (dossier <code>src-vector</code>), afin que la compilation principale n'en dépende pas.
+ *
+ * @version 1.00.00
+ * @author Sebastien Villemain
+ */
+interface VectorKernels {
+
+    /**
+     * Vérifie que les vecteurs contiennent plusieurs pixels.
+     *
+     * @return
+     */
+    boolean isSupported();
+
+    /**
+     * Voir {@link PixelKernels#premultiply(int[], int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    int premultiply(int[] pixels, int offset, int length);
+
+    /**
+     * Voir {@link PixelKernels#unpremultiply(int[], int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    int unpremultiply(int[] pixels, int offset, int length);
+
+    /**
+     * Voir {@link PixelKernels#compositeOver(int[], int, int[], int, int)}.
+     *
+     * @param src
+     * @param srcOffset
+     * @param dst
+     * @param dstOffset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    int compositeOver(int[] src, int srcOffset, int[] dst, int dstOffset, int length);
+
+    /**
+     * Voir {@link PixelKernels#grayscale(int[], int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels traités.
+     */
+    int grayscale(int[] pixels, int offset, int length);
+
+    /**
+     * Voir {@link PixelKernels#tint(int[], int, int, int, float)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param tr Rouge de la teinte, multiplié par l'intensité.
+     * @param tg Vert de la teinte, multiplié par l'intensité.
+     * @param tb Bleu de la teinte, multiplié par l'intensité.
+     * @param keep Part de la couleur d'origine (sur 256).
+     * @return Nombre de pixels traités.
+     */
+    int tint(int[] pixels, int offset, int length, int tr, int tg, int tb, int keep);
+
+    /**
+     * Voir {@link PixelKernels#hasTranslucentPixels(int[], int, int)}.
+     * Le parcours s'arrête avant le premier vecteur contenant un pixel transparent.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @return Nombre de pixels opaques vérifiés depuis le début.
+     */
+    int countOpaquePixels(int[] pixels, int offset, int length);
+
+    /**
+     * Voir {@link PixelKernels#alphaThreshold(int[], int, int, int)}.
+     *
+     * @param pixels
+     * @param offset
+     * @param length
+     * @param alphaMaxLevel
+     * @return Nombre de pixels traités.
+     */
+    int alphaThreshold(int[] pixels, int offset, int length, int alphaMaxLevel);
+}
@@ -67,11 +67,11 @@ public class WindowsBoundHelper {
             frame.setSize(applicationDimension);
 
             // Vérifie si l'application est configurée en mode plein écran
-            Rectangle display = ScreenManager.getMaximumBounds();
+            ScreenGeometry display = ScreenManager.getScreenGeometry();
 
             // Maximise la fenêtre si besoin
-            if (applicationDimension.width > (display.getWidth() - 50)
-                || applicationDimension.height > (display.getHeight() - 50)) {
+            if (applicationDimension.width > (display.getMaximumWidth() - 50)
+                || applicationDimension.height > (display.getMaximumHeight() - 50)) {
                 frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
             }
         }
@@ -144,13 +144,13 @@ public class WindowsBoundHelper {
         if (applicationLocation == null
             || applicationLocation.x != windowX
             || applicationLocation.y != windowY) {
-            Rectangle display = ScreenManager.getMaximumBounds();
+            ScreenGeometry display = ScreenManager.getScreenGeometry();
 
-            if ((windowX + (applicationDimension != null ? applicationDimension.width : 0)) > display.getWidth()) {
+            if ((windowX + (applicationDimension != null ? applicationDimension.width : 0)) > display.getMaximumWidth()) {
                 windowX = 0;
             }
 
-            if ((windowY + (applicationDimension != null ? applicationDimension.height : 0)) > display.getHeight()) {
+            if ((windowY + (applicationDimension != null ? applicationDimension.height : 0)) > display.getMaximumHeight()) {
                 windowY = 0;
             }
 